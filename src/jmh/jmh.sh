@@ -0,0 +1,19 @@
+#!/bin/sh
+# compiles the engine and the benchmarks into build/jmh and runs them
+# JMH_CP must hold jmh-core, jmh-generator-annprocess and their dependencies
+#   JMH_CP=... src/jmh/jmh.sh [jmh options]   compiles and runs the benchmarks
+#   JMH_CP=... src/jmh/jmh.sh --compile       only compiles them
+set -e
+cd "$(dirname "$0")/../.."
+: "${JMH_CP:?set JMH_CP to the jmh-core and jmh-generator-annprocess jars}"
+
+out=build/jmh
+rm -rf "$out"
+mkdir -p "$out"
+javac -encoding UTF-8 -d "$out" $(find src/main -name '*.java')
+javac -encoding UTF-8 -cp "$out:$JMH_CP" -d "$out" $(find src/jmh -name '*.java')
+
+if [ "$1" = "--compile" ]; then
+    exit 0
+fi
+exec java -cp "$out:$JMH_CP" org.openjdk.jmh.Main "$@"
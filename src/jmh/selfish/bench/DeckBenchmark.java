@@ -0,0 +1,182 @@
+package selfish.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import selfish.GameEngine;
+import selfish.GameException;
+import selfish.deck.Card;
+import selfish.deck.CardCatalog;
+import selfish.deck.GameDeck;
+import selfish.deck.Oxygen;
+
+/**
+ * measures drawing from decks, drawing and splitting oxygen, and merging decks;
+ * splitting runs in batches of {@value #BATCH} splits, so its score is the time
+ * of a whole batch, and the decks are set up again before every merge
+ * <pre> compile and run from the repository root with src/jmh/jmh.sh, JMH_CP
+ * holding jmh-core and jmh-generator-annprocess:
+ *      JMH_CP=... src/jmh/jmh.sh selfish.bench </pre>
+ * @author sofia hu
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DeckBenchmark {
+
+    /**
+     * nº of splits made between two restocks of the deck
+     */
+    final static int BATCH = 1000;
+
+    /**
+     * nº of cards in the game deck
+     */
+    @Param({"78", "780", "7800"})
+    public int deckSize;
+
+    /**
+     * nº of players in the game
+     */
+    @Param({"2", "5"})
+    public int playerCount;
+
+    /**
+     * game whose decks are measured
+     */
+    private GameEngine game;
+
+    /**
+     * deck drawn from
+     */
+    private GameDeck deck;
+
+    /**
+     * deck merged into the game deck
+     */
+    private GameDeck discard;
+
+    /**
+     * oxygen(2) handed to splitOxygen
+     */
+    private Oxygen dbl;
+
+    /**
+     * array the splits are put in
+     */
+    private final Oxygen[] halves = new Oxygen[2];
+
+    /**
+     * creates the game and fills its decks
+     * @throws GameException when the card files cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws GameException {
+        this.game = Fixtures.game(this.deckSize, this.playerCount, false);
+        this.deck = this.game.getGameDeck();
+        this.discard = this.game.getGameDiscard();
+        this.dbl = this.deck.drawOxygen(2);
+    }
+
+    /**
+     * deck being split, restocked once per iteration rather than around every
+     * split
+     */
+    @State(Scope.Thread)
+    public static class Splitting {
+
+        /**
+         * nº of oxygen(1)s in the deck before any split
+         */
+        private int oxygen1 = -1;
+
+        /**
+         * nº of oxygen(2)s in the deck before any split
+         */
+        private int oxygen2;
+
+        /**
+         * takes out the oxygen(2)s the last batch put in and tops the deck up
+         * with oxygen(1)s, so a whole batch can be split
+         * @param bench benchmark whose deck is split
+         */
+        @Setup(Level.Iteration)
+        public void restock(DeckBenchmark bench) {
+            GameDeck deck = bench.deck;
+            if (this.oxygen1 < 0) {
+                this.oxygen1 = deck.oxygenCount(1);
+                this.oxygen2 = deck.oxygenCount(2);
+            }
+            while (deck.oxygenCount(2) > this.oxygen2) {
+                deck.drawOxygen(2);
+            }
+            while (deck.oxygenCount(1) < this.oxygen1 + 2 * BATCH) {
+                deck.add(CardCatalog.card(GameDeck.OXYGEN_1_ID));
+            }
+        }
+    }
+
+    /**
+     * decks being merged, emptied into the discard pile before every merge so
+     * the merge restocks all of the game deck, and only the merge is timed
+     */
+    @State(Scope.Thread)
+    public static class Merging {
+
+        /**
+         * moves the game deck into the discard pile
+         * @param bench benchmark whose decks are merged
+         */
+        @Setup(Level.Invocation)
+        public void discard(DeckBenchmark bench) {
+            while (bench.deck.size() > 0) {
+                bench.discard.add(bench.deck.draw());
+            }
+        }
+    }
+
+    @Benchmark
+    public Card draw() {
+        Card card = this.deck.draw();
+        this.deck.add(card);
+        return card;
+    }
+
+    @Benchmark
+    public Oxygen drawOxygen() {
+        Oxygen oxygen = this.deck.drawOxygen(1);
+        this.deck.add(oxygen);
+        return oxygen;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    public Oxygen[] splitOxygen(Splitting splitting) {
+        return this.deck.splitOxygen(this.dbl, this.halves);
+    }
+
+    @Benchmark
+    public int mergeDecks(Merging merging) {
+        this.game.mergeDecks(this.deck, this.discard);
+        return this.deck.size();
+    }
+}
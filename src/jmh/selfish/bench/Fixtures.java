@@ -0,0 +1,90 @@
+package selfish.bench;
+
+import java.util.Random;
+
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.GameException;
+import selfish.deck.GameDeck;
+
+/**
+ * builds the decks and games the benchmarks run against
+ * @author sofia hu
+ * @version 1.0
+ */
+final class Fixtures {
+
+    /**
+     * file of action cards
+     */
+    final static String ACTION_CARDS = "io/ActionCards.txt";
+
+    /**
+     * file of space cards
+     */
+    final static String SPACE_CARDS = "io/SpaceCards.txt";
+
+    /**
+     * seed every fixture is shuffled with
+     */
+    final static long SEED = 42;
+
+    private Fixtures() { }
+
+    /**
+     * creates a shuffled game deck of a given size by repeating the standard deck
+     * @param size nº of cards wanted
+     * @return shuffled game deck
+     * @throws GameException when the card file cannot be read
+     */
+    static GameDeck gameDeck(int size) throws GameException {
+        GameDeck deck = new GameDeck();
+        while (deck.size() < size) {
+            GameDeck standard = new GameDeck(ACTION_CARDS);
+            while (standard.size() > 0 && deck.size() < size) {
+                deck.add(standard.draw());
+            }
+        }
+        deck.shuffle(new Random(SEED));
+        return deck;
+    }
+
+    /**
+     * creates a game with its players added and its game deck topped up to a given size
+     * @param deckSize nº of cards in the game deck before dealing
+     * @param players nº of players, between 2 and 5
+     * @param start whether to deal the cards and start the game
+     * @return game
+     * @throws GameException when the card files cannot be read
+     */
+    static GameEngine game(int deckSize, int players, boolean start) throws GameException {
+        GameEngine game = new GameEngine(SEED, ACTION_CARDS, SPACE_CARDS);
+        GameDeck extra = gameDeck(Math.max(0, deckSize - game.getGameDeck().size()));
+        while (extra.size() > 0) {
+            game.getGameDeck().add(extra.draw());
+        }
+        game.getGameDeck().shuffle(new Random(SEED));
+
+        for (int i = 0; i < players; i++) {
+            game.addPlayer("Player " + (i + 1));
+        }
+        if (start) {
+            game.startGame();
+        }
+        return game;
+    }
+
+    /**
+     * deals what is left of the game deck out to the players in turn
+     * @param game started game
+     */
+    static void dealRest(GameEngine game) {
+        GameDeck deck = game.getGameDeck();
+        while (deck.size() > 0) {
+            for (Astronaut player : game.getAllPlayers()) {
+                if (deck.size() == 0) break;
+                player.addToHand(deck.draw());
+            }
+        }
+    }
+}
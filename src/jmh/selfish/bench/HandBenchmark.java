@@ -0,0 +1,130 @@
+package selfish.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.GameException;
+import selfish.deck.Card;
+import selfish.deck.CardCatalog;
+import selfish.deck.GameDeck;
+
+/**
+ * measures the queries and updates on a player's hand; getHandStr reads the
+ * cached string, while getHandStrChanged changes the hand first so the string
+ * is built again. Breathing runs in batches of {@value #BATCH} breaths, so its
+ * score is the time of a whole batch
+ * @author sofia hu
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class HandBenchmark {
+
+    /**
+     * nº of breaths taken between two refills of the hand
+     */
+    final static int BATCH = 1000;
+
+    /**
+     * nº of cards in the game deck, all of which get dealt out
+     */
+    @Param({"78", "780", "7800"})
+    public int deckSize;
+
+    /**
+     * nº of players the deck is dealt between
+     */
+    @Param({"2", "5"})
+    public int playerCount;
+
+    /**
+     * game the player is in
+     */
+    private GameEngine game;
+
+    /**
+     * player whose hand is measured
+     */
+    private Astronaut player;
+
+    /**
+     * deals the whole deck out between the players
+     * @throws GameException when the card files cannot be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws GameException {
+        this.game = Fixtures.game(this.deckSize, this.playerCount, true);
+        Fixtures.dealRest(this.game);
+        this.player = this.game.getAllPlayers().get(0);
+    }
+
+    /**
+     * hand of the breathing player, refilled once per iteration rather than
+     * around every breath
+     */
+    @State(Scope.Thread)
+    public static class Breathing {
+
+        /**
+         * hands back the oxygen the last batch discarded, topping the hand up
+         * with oxygen(1)s the first time so a whole batch can be breathed
+         * @param bench benchmark whose player breathes
+         */
+        @Setup(Level.Iteration)
+        public void refill(HandBenchmark bench) {
+            GameDeck discard = bench.game.getGameDiscard();
+            while (discard.size() > 0) {
+                bench.player.addToHand(discard.draw());
+            }
+            while (bench.player.oxygenRemaining() <= BATCH) {
+                bench.player.addToHand(CardCatalog.card(GameDeck.OXYGEN_1_ID));
+            }
+        }
+    }
+
+    @Benchmark
+    public int hasCard() {
+        return this.player.hasCard(GameDeck.SHIELD);
+    }
+
+    @Benchmark
+    public String getHandStr() {
+        return this.player.getHandStr();
+    }
+
+    @Benchmark
+    public String getHandStrChanged() {
+        //taking an oxygen(1) out and putting it back throws the cached string away, so it is built again
+        Card oxygen = CardCatalog.card(GameDeck.OXYGEN_1_ID);
+        this.player.hack(oxygen);
+        this.player.addToHand(oxygen);
+        return this.player.getHandStr();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    @Warmup(iterations = 5, batchSize = BATCH)
+    @Measurement(iterations = 20, batchSize = BATCH)
+    public int breathe(Breathing breathing) {
+        return this.player.breathe();
+    }
+}
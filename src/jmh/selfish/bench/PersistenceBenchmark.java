@@ -0,0 +1,101 @@
+package selfish.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import selfish.GameEngine;
+import selfish.GameException;
+
+/**
+ * measures saving a game to disk and loading it back, against copying it in memory
+ * @author sofia hu
+ * @version 1.0
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PersistenceBenchmark {
+
+    /**
+     * nº of cards in the game deck
+     */
+    @Param({"78", "780", "7800"})
+    public int deckSize;
+
+    /**
+     * nº of players in the game
+     */
+    @Param({"2", "5"})
+    public int playerCount;
+
+    /**
+     * game that gets saved
+     */
+    private GameEngine game;
+
+    /**
+     * file the game is saved to
+     */
+    private String path;
+
+    /**
+     * starts the game and saves it once so there is something to load
+     * @throws GameException when the card files cannot be read or the save fails
+     * @throws IOException when the temporary file cannot be created
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws GameException, IOException {
+        this.game = Fixtures.game(this.deckSize, this.playerCount, true);
+        File file = File.createTempFile("selfish", ".ser");
+        file.deleteOnExit();
+        this.path = file.getPath();
+        this.game.saveState(this.path);
+    }
+
+    /**
+     * removes the save file
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        new File(this.path).delete();
+        new File(this.path + ".z").delete();
+    }
+
+    @Benchmark
+    public void saveState() throws GameException {
+        this.game.saveState(this.path);
+    }
+
+    @Benchmark
+    public void saveStateDeflated() throws GameException {
+        this.game.saveState(this.path + ".z", true);
+    }
+
+    @Benchmark
+    public GameEngine loadState() throws GameException {
+        return GameEngine.loadState(this.path);
+    }
+
+    @Benchmark
+    public GameEngine copy() {
+        return this.game.copy();
+    }
+}
@@ -1,3 +1,18 @@
+import java.io.IOException;
+import java.util.Map;
+
+import selfish.Astronaut;
+import selfish.EngineMetrics;
+import selfish.GameEngine;
+import selfish.GameException;
+import selfish.Histogram;
+import selfish.Replay;
+import selfish.Simulation;
+import selfish.SimulationStats;
+import selfish.deck.CardCatalog;
+import selfish.server.LoadGenerator;
+import selfish.server.SessionServer;
+
 public class GameDriver {
 
     /**
@@ -13,7 +28,164 @@ public class GameDriver {
     public GameDriver() {
     }
 
-    public static void main(String[] args)  {
+    /**
+     * plays a batch of headless games and prints the results
+     * <pre> usage: --simulate games [players] [first seed] [threads] </pre>
+     * @param args command line arguments after --simulate
+     * @throws GameException when the card files cannot be read
+     */
+    public static void simulate(String[] args) throws GameException {
+        long games = args.length > 1 ? Long.parseLong(args[1]) : 100000;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long firstSeed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+        int threads = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        Simulation simulation = new Simulation(Simulation.ACTION_CARDS, Simulation.SPACE_CARDS, players);
+        Simulation.Report report = simulation.run(firstSeed, games, threads);
+
+        System.out.printf("games        %d (seeds %d to %d, %d threads)%n", report.getGames(), firstSeed, firstSeed + games - 1, threads);
+        System.out.printf("games/second %.1f%n", report.getGamesPerSecond());
+        System.out.printf("turns/game   %.2f%n", report.getTurnsPerGame());
+        for (int seat = 0; seat < report.getSeats(); seat++) {
+            System.out.printf("seat %d wins  %.2f%%%n", seat + 1, report.getWinRate(seat) * 100);
+        }
+        System.out.printf("no winner    %.2f%%%n", report.getNoWinnerRate() * 100);
+
+        SimulationStats stats = report.getStats();
+        Histogram turns = stats.getTurns();
+        System.out.printf("turns        min %d, p50 %d, p90 %d, p99 %d, max %d%n", turns.getMin(),
+            turns.getPercentile(50), turns.getPercentile(90), turns.getPercentile(99), turns.getMax());
+        for (SimulationStats.Death cause : SimulationStats.Death.values()) {
+            System.out.printf("deaths %-15s %d%n", cause.name().toLowerCase(), stats.getDeaths(cause));
+        }
+        for (int id = 0; id < CardCatalog.size(); id++) {
+            if (stats.getSpaceCards(id) > 0) {
+                System.out.printf("drawn %-22s %d%n", CardCatalog.nameOf(id), stats.getSpaceCards(id));
+            }
+        }
+        if (EngineMetrics.isEnabled()) {
+            for (Map.Entry<String, Long> metric : EngineMetrics.snapshot().entrySet()) {
+                System.out.printf("%-18s %d%n", metric.getKey(), metric.getValue());
+            }
+        }
+    }
+
+    /**
+     * hosts games for clients over a local socket until the process is stopped
+     * <pre> usage: --serve [port] </pre>
+     * @param args command line arguments after --serve
+     * @throws GameException when the port cannot be listened on
+     */
+    public static void serve(String[] args) throws GameException {
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : SessionServer.DEFAULT_PORT;
+
+        SessionServer server = new SessionServer(port, Simulation.ACTION_CARDS, Simulation.SPACE_CARDS);
+        server.start();
+        System.out.println("serving games on port " + server.getPort());
+    }
+
+    /**
+     * fills a session server with games, plays them for a while and prints the
+     * memory each game took and the commands handled per second; without a port
+     * the server is started in this process
+     * <pre> usage: --load [games] [connections] [seconds] [port] </pre>
+     * @param args command line arguments after --load
+     * @throws GameException when the server cannot be started or reached
+     */
+    public static void load(String[] args) throws GameException {
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+
+        SessionServer server = null;
+        int port;
+        if (args.length > 4) {
+            port = Integer.parseInt(args[4]);
+        }
+        else {
+            server = new SessionServer(0, Simulation.ACTION_CARDS, Simulation.SPACE_CARDS);
+            server.start();
+            port = server.getPort();
+        }
+
+        try {
+            LoadGenerator.Result result = new LoadGenerator("localhost", port).run(games, connections, 5, seconds * 1000L);
+            System.out.printf("games          %d (%d connections)%n", result.getGames(), connections);
+            System.out.printf("bytes/game     %d%n", result.getBytesPerSession());
+            System.out.printf("commands       %d%n", result.getCommands());
+            System.out.printf("commands/second %.1f%n", result.getCommandsPerSecond());
+        }
+
+        finally {
+            if (server != null) {
+                try {
+                    server.close();
+                }
+
+                catch (IOException ex) {
+                    //the process is ending anyway
+                }
+            }
+        }
+    }
+
+    /**
+     * plays one headless game and records it
+     * <pre> usage: --record file [seed] [players] [turns between checkpoints] </pre>
+     * @param args command line arguments after --record
+     * @throws GameException when the card files cannot be read or the file cannot be written
+     */
+    public static void record(String[] args) throws GameException {
+        String path = args[1];
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        int players = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        int checkpointEvery = args.length > 4 ? Integer.parseInt(args[4]) : 50;
+
+        Simulation simulation = new Simulation(Simulation.ACTION_CARDS, Simulation.SPACE_CARDS, players);
+        Simulation.Report report = simulation.recordGame(seed, path, checkpointEvery);
+        System.out.printf("recorded     seed %d, %.0f turns, to %s%n", seed, report.getTurnsPerGame(), path);
+    }
+
+    /**
+     * plays a recorded game back to a turn and prints the players as they were
+     * <pre> usage: --replay file [turn] </pre>
+     * @param args command line arguments after --replay
+     * @throws GameException when the recording or the card files cannot be read
+     */
+    public static void replay(String[] args) throws GameException {
+        Replay replay = new Replay(args[1]);
+        int turn = args.length > 2 ? Integer.parseInt(args[2]) : Integer.MAX_VALUE;
+
+        long start = System.nanoTime();
+        GameEngine game = replay.seek(turn);
+        long nanos = System.nanoTime() - start;
+
+        System.out.printf("recording    seed %d, %d turns, %d checkpoints%n", replay.getSeed(), replay.getTurns(), replay.getCheckpoints());
+        System.out.printf("seek         %.3f ms%n", nanos / 1e6);
+        for (Astronaut player : game.getAllPlayers()) {
+            System.out.printf("%-12s %d from ship; %s%n", player, player.distanceFromShip(), player.getHandStr());
+        }
+        if (game.getWinner() != null) {
+            System.out.println("winner       " + game.getWinner());
+        }
+    }
+
+    public static void main(String[] args) throws GameException {
+        if (args.length > 0 && args[0].equals("--simulate")) {
+            simulate(args);
+        }
+        else if (args.length > 0 && args[0].equals("--serve")) {
+            serve(args);
+        }
+        else if (args.length > 0 && args[0].equals("--load")) {
+            load(args);
+        }
+        else if (args.length > 1 && args[0].equals("--record")) {
+            record(args);
+        }
+        else if (args.length > 1 && args[0].equals("--replay")) {
+            replay(args);
+        }
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package selfish;
+import selfish.deck.Card;
+
+/**
+ * what an action card does when it is played and not blocked
+ * @author sofia hu
+ * @version 1.0
+ */
+@FunctionalInterface
+interface ActionEffect {
+
+    /**
+     * applies the card's effect, after it has left the actor's hand
+     * @param game game being played
+     * @param actor player who played the card
+     * @param target player the card was played on, or null for cards played on no one
+     * @param choice card the actor chose to take, for a hack suit
+     */
+    void resolve(GameEngine game, Astronaut actor, Astronaut target, Card choice);
+}
@@ -1,18 +1,23 @@
 package selfish;
 import java.util.List;
-import java.util.Random;
-import java.util.Set;
 
 import javax.net.ssl.HandshakeCompletedEvent;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
-import java.util.LinkedHashSet;
 
 import selfish.deck.Card;
+import selfish.deck.CardCatalog;
 import selfish.deck.GameDeck;
 import selfish.deck.Oxygen;
 import selfish.deck.SpaceDeck;
@@ -30,14 +35,44 @@ public class Astronaut implements Serializable {
     private GameEngine game;
 
     /**
-     * name for the action cards
+     * nº of cards of each kind in the player's hand, by card id
      */
-    private List<Card> actions;
+    private int[] hand;
 
     /**
-     * name for the oxygen cards
+     * a card of each kind the player has held, by card id
      */
-    private List<Oxygen> oxygens;
+    private Card[] kinds;
+
+    /**
+     * nº of action cards in the player's hand
+     */
+    private int actionCount;
+
+    /**
+     * nº of oxygen cards in the player's hand
+     */
+    private int oxygenCount;
+
+    /**
+     * total value of the oxygen cards in the player's hand
+     */
+    private int oxygenTotal;
+
+    /**
+     * getHandStr's last result, or null once the hand has changed
+     */
+    private transient String handString;
+
+    /**
+     * getActionsStr's last results, one for each combination of its arguments
+     */
+    private transient String[] actionsStrings;
+
+    /**
+     * the halves of the last oxygen(2) the player split, kept so splitting allocates nothing
+     */
+    private transient Oxygen[] split;
 
     /**
      * name for the name of the player
@@ -45,15 +80,33 @@ public class Astronaut implements Serializable {
     private String name;
 
     /**
-     * name for the collection of cards
+     * space cards the player has passed, oldest first, kept as a stack
+     */
+    private Card[] track;
+
+    /**
+     * nº of space cards on the track
      */
-    private Collection<Card> track;
+    private int trackSize;
 
     /**
      * unique ID for the player
      */
     private final static long serialVersionUID = 5l;
 
+    /**
+     * serialised form of the player, their hand as lists of action cards and oxygens
+     * and their track as a list, as they were kept before the arrays, so older saves
+     * still load
+     */
+    private final static ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("game", GameEngine.class),
+        new ObjectStreamField("actions", List.class),
+        new ObjectStreamField("oxygens", List.class),
+        new ObjectStreamField("name", String.class),
+        new ObjectStreamField("track", Collection.class)
+    };
+
     /**
      * creates player astronaut
      * @param name player name 
@@ -62,9 +115,114 @@ public class Astronaut implements Serializable {
     public Astronaut(String name, GameEngine game) {
         this.name = name;
         this.game = game;
-        this.actions = new ArrayList<>();
-        this.oxygens = new ArrayList<>();
-        this.track = new ArrayList<>();
+        this.hand = new int[CardCatalog.size()];
+        this.kinds = new Card[CardCatalog.size()];
+        this.track = new Card[8];
+    }
+
+    /**
+     * creates a copy of a player for a copy of their game
+     * @param other player to copy
+     * @param game game the copy partakes in
+     */
+    Astronaut(Astronaut other, GameEngine game) {
+        this.name = other.name;
+        this.game = game;
+        this.hand = other.hand.clone();
+        this.kinds = other.kinds.clone();
+        this.actionCount = other.actionCount;
+        this.oxygenCount = other.oxygenCount;
+        this.oxygenTotal = other.oxygenTotal;
+        this.handString = other.handString;
+        this.track = other.track.clone();
+        this.trackSize = other.trackSize;
+    }
+
+    /**
+     * empties the player's hand and track, for a game being reset
+     */
+    void reset() {
+        Arrays.fill(this.hand, 0);
+        Arrays.fill(this.kinds, null);
+        this.actionCount = 0;
+        this.oxygenCount = 0;
+        this.oxygenTotal = 0;
+        handChanged();
+        Arrays.fill(this.track, 0, this.trackSize, null);
+        this.trackSize = 0;
+    }
+
+    /**
+     * writes the player out with their hand and track as lists
+     * @param out stream to write to
+     * @throws IOException when the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        List<Card> actions = new ArrayList<>(this.actionCount);
+        List<Oxygen> oxygens = new ArrayList<>(this.oxygenCount);
+        for (int id = 0; id < this.hand.length; id++) {
+            for (int i = 0; i < this.hand[id]; i++) {
+                if (this.kinds[id] instanceof Oxygen) {
+                    oxygens.add((Oxygen)this.kinds[id]);
+                }
+                else {
+                    actions.add(this.kinds[id]);
+                }
+            }
+        }
+
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("game", this.game);
+        fields.put("actions", actions);
+        fields.put("oxygens", oxygens);
+        fields.put("name", this.name);
+        fields.put("track", new ArrayList<>(getTrack()));
+        out.writeFields();
+    }
+
+    /**
+     * reads the player back, counting the cards of the lists into the hand; the
+     * game counts its winners again once all its players are read
+     * @param in stream to read from
+     * @throws IOException when the stream cannot be read or the lists are missing
+     * @throws ClassNotFoundException when a class in the stream cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        this.game = (GameEngine)fields.get("game", null);
+        this.name = (String)fields.get("name", null);
+        Object actions = fields.get("actions", null);
+        Object oxygens = fields.get("oxygens", null);
+        Object track = fields.get("track", null);
+        if (!(actions instanceof Collection && oxygens instanceof Collection && track instanceof Collection)) {
+            throw new InvalidObjectException("Astronaut without a hand or track");
+        }
+
+        this.hand = new int[CardCatalog.size()];
+        this.kinds = new Card[CardCatalog.size()];
+        for (Collection<?> cards : List.of((Collection<?>)actions, (Collection<?>)oxygens)) {
+            for (Object saved : cards) {
+                if (!(saved instanceof Card)) throw new InvalidObjectException("Astronaut holding " + saved);
+
+                Card card = (Card)saved;
+                this.kinds[card.getId()] = card;
+                this.hand[card.getId()]++;
+                if (card instanceof Oxygen) {
+                    this.oxygenCount++;
+                    this.oxygenTotal += ((Oxygen)card).getValue();
+                }
+                else {
+                    this.actionCount++;
+                }
+            }
+        }
+
+        Collection<?> cards = (Collection<?>)track;
+        this.track = new Card[Math.max(8, cards.size())];
+        for (Object card : cards) {
+            if (!(card instanceof Card)) throw new InvalidObjectException("Astronaut on " + card);
+            this.track[this.trackSize++] = (Card)card;
+        }
     }
 
     /**
@@ -72,23 +230,124 @@ public class Astronaut implements Serializable {
      * @param card card that gets added
      */
     public void addToHand(Card card) {
+        if (this.game.journal(Journal.ADD_TO_HAND, this, card)) {
+            this.game.journaled(true);
+        }
+
+        int id = card.getId();
+        if (id >= this.hand.length) {
+            this.hand = Arrays.copyOf(this.hand, CardCatalog.size());
+            this.kinds = Arrays.copyOf(this.kinds, CardCatalog.size());
+        }
+        if (this.kinds[id] == null) {
+            this.kinds[id] = card;
+        }
+        this.hand[id]++;
+        handChanged();
+
         if (card instanceof Oxygen) {
-            this.oxygens.add((Oxygen)card);
-            this.oxygens.sort(Oxygen :: compareTo);
+            this.oxygenCount++;
+            this.oxygenTotal += ((Oxygen)card).getValue();
+            if (this.oxygenCount == 1 && distanceFromShip() == 0) {
+                this.game.winnersChanged(this, 1);
+            }
         }
 
         else {
-            this.actions.add(card);
-            this.actions.sort(Card :: compareTo);
+            this.actionCount++;
         }
     }
 
+    /**
+     * takes one card of a kind out of the player's hand
+     * @param id id of the card
+     * @return card taken
+     */
+    private Card takeFromHand(int id) {
+        Card card = this.kinds[id];
+        this.hand[id]--;
+        handChanged();
+
+        if (card instanceof Oxygen) {
+            this.oxygenCount--;
+            this.oxygenTotal -= ((Oxygen)card).getValue();
+            if (this.oxygenCount == 0 && distanceFromShip() == 0) {
+                this.game.winnersChanged(this, -1);
+            }
+        }
+
+        else {
+            this.actionCount--;
+        }
+        return card;
+    }
+
+    /**
+     * tells the game when a change to the player's track or oxygen has made
+     * them start or stop having won
+     * @param hadWon whether the player had won before the change
+     */
+    private void standingChanged(boolean hadWon) {
+        boolean won = hasWon();
+        if (won != hadWon) {
+            this.game.winnersChanged(this, won ? 1 : -1);
+        }
+    }
+
+    /**
+     * throws away the cached hand strings
+     */
+    private void handChanged() {
+        this.handString = null;
+        if (this.actionsStrings != null) {
+            Arrays.fill(this.actionsStrings, null);
+        }
+    }
+
+    /**
+     * gives the nº of cards of a kind in the player's hand
+     * @param id id of the card
+     * @return nº of cards
+     */
+    int count(int id) {
+        return id >= 0 && id < this.hand.length ? this.hand[id] : 0;
+    }
+
+    /**
+     * gives a card by its position in the sorted hand
+     * @param index position in the hand
+     * @param actionsOnly whether to leave out the oxygens
+     * @return card at that position
+     */
+    private Card cardAt(int index, boolean actionsOnly) {
+        if (index < 0) throw new IndexOutOfBoundsException(index);
+
+        for (int rank = 0; rank < CardCatalog.size(); rank++) {
+            int id = CardCatalog.byRank(rank);
+            if (actionsOnly && this.kinds.length > id && this.kinds[id] instanceof Oxygen) continue;
+
+            index -= count(id);
+            if (index < 0) {
+                return this.kinds[id];
+            }
+        }
+        throw new IndexOutOfBoundsException();
+    }
+
     /**
      * adds a space card to your path
      * @param card space card added
      */
     public void addToTrack(Card card) {
-        this.track.add(card);
+        if (this.game.journal(Journal.ADD_TO_TRACK, this, card)) {
+            this.game.journaled(true);
+        }
+        boolean hadWon = hasWon();
+        if (this.trackSize == this.track.length) {
+            this.track = Arrays.copyOf(this.track, this.trackSize * 2);
+        }
+        this.track[this.trackSize++] = card;
+        standingChanged(hadWon);
     }
 
     /**
@@ -98,40 +357,99 @@ public class Astronaut implements Serializable {
     public int breathe() {
         if (isAlive() == false) throw new IllegalStateException();
 
-        if (hasCard(GameDeck.OXYGEN_1) == 0) {
-            Oxygen[] splitOxygen = game.splitOxygen(this.oxygens.get(0));
-            this.oxygens.remove(0);
-            this.oxygens.add(splitOxygen[0]);
-            game.getGameDiscard().add(splitOxygen[1]);
-        }
+        boolean outer = this.game.journal(Journal.BREATHE, this);
+        try {
+            if (count(GameDeck.OXYGEN_1_ID) == 0) {
+                Oxygen[] splitOxygen = splitOxygen();
+                takeFromHand(GameDeck.OXYGEN_2_ID);
+                addToHand(splitOxygen[0]);
+                game.getGameDiscard().add(splitOxygen[1]);
+            }
 
-        else {
-            this.oxygens.sort(Oxygen::compareTo);
-            game.getGameDiscard().add(this.oxygens.get(0));
-            this.oxygens.remove(0);
+            else {
+                game.getGameDiscard().add(takeFromHand(GameDeck.OXYGEN_1_ID));
+            }
+
+            if (oxygenRemaining() == 0) {
+                this.game.killPlayer(this, SimulationStats.Death.BREATHING);
+            }
         }
 
-        if (oxygenRemaining() == 0) {
-            this.game.killPlayer(this);
+        finally {
+            this.game.journaled(outer);
         }
 
         return oxygenRemaining();
     }
 
+    /**
+     * splits one of the player's oxygen(2)s through the game, into the player's own array
+     * @return halves of the split oxygen
+     */
+    private Oxygen[] splitOxygen() {
+        if (this.split == null) {
+            this.split = new Oxygen[2];
+        }
+        return game.splitOxygen((Oxygen)this.kinds[GameDeck.OXYGEN_2_ID], this.split);
+    }
+
     /**
      * tells the distance from players to ship
      * @return nº of spaces between player and ship
      */
     public int distanceFromShip() {
-        return (6 - this.track.size());
+        return (6 - this.trackSize);
+    }
+
+    /**
+     * gives the nº of cards in the player's hand
+     * @return nº of cards
+     */
+    int handSize() {
+        return this.actionCount + this.oxygenCount;
     }
 
     /**
-     * gets the list of action cards in your hands
+     * gets the list of action cards in your hands, sorted; the list is a
+     * view of the hand, so clearing it empties the hand of actions
      * @return list of action cards you have
      */
     public List<Card> getActions() {
-        return actions;
+        return new AbstractList<Card>() {
+            @Override
+            public Card get(int index) {
+                if (index >= actionCount) throw new IndexOutOfBoundsException(index);
+                return cardAt(index, true);
+            }
+
+            @Override
+            public int size() {
+                return actionCount;
+            }
+
+            @Override
+            public boolean add(Card card) {
+                if (card instanceof Oxygen) throw new IllegalArgumentException();
+                addToHand(card);
+                return true;
+            }
+
+            @Override
+            public Card remove(int index) {
+                return takeFromHand(get(index).getId());
+            }
+
+            @Override
+            public void clear() {
+                for (int id = 0; id < hand.length; id++) {
+                    if (hand[id] > 0 && !(kinds[id] instanceof Oxygen)) {
+                        actionCount -= hand[id];
+                        hand[id] = 0;
+                    }
+                }
+                handChanged();
+            }
+        };
     }
 
     /**
@@ -149,54 +467,55 @@ public class Astronaut implements Serializable {
      * @return list of the actions as a string
      */
     public String getActionsStr(boolean enumerated, boolean excludShields) {
-        String actionsString = "";
-        Set<String> actionSet = new LinkedHashSet<>();
-
-        for(Card action : this.actions) {
-            if (!actionSet.contains(action.toString())) {
-                actionSet.add(action.toString());
-            }
+        int variant = (enumerated ? 2 : 0) + (excludShields ? 1 : 0);
+        if (this.actionsStrings == null) {
+            this.actionsStrings = new String[4];
+        }
+        if (this.actionsStrings[variant] == null) {
+            this.actionsStrings[variant] = buildActionsStr(enumerated, excludShields);
         }
+        return this.actionsStrings[variant];
+    }
 
-        if (enumerated == true) {
-            char enumChar = 'A';
+    /**
+     * builds the string that getActionsStr returns, in one pass over the hand
+     * @param enumerated enumerates the list of actions
+     * @param excludShields excludes shiels from list
+     * @return list of the actions as a string
+     */
+    private String buildActionsStr(boolean enumerated, boolean excludShields) {
+        StringBuilder actionsString = new StringBuilder();
+        char enumChar = 'A';
 
-            for (String actionCard : actionSet) {
-            
-                if (actionCard.equals(GameDeck.SHIELD) && excludShields == true) {
-                    continue;
-                }
+        for (int rank = 0; rank < CardCatalog.size(); rank++) {
+            int id = CardCatalog.byRank(rank);
+            int numberOfCard = count(id);
 
-                actionsString += "[" + enumChar + "] " + actionCard + ", ";
-                enumChar += 1;
+            if (numberOfCard == 0 || this.kinds[id] instanceof Oxygen) {
+                continue;
             }
-        }
 
-        else {
-            for (String actionCard : actionSet) {
-                
-                if (actionCard.toString().equals(GameDeck.SHIELD) && excludShields == true) {
-                    continue;
-                }
-
-                int numberOfCard = hasCard(actionCard.toString());
+            if (id == GameDeck.SHIELD_ID && excludShields == true) {
+                continue;
+            }
 
-                if (numberOfCard == 1) {
-                    actionsString += actionCard.toString() + ", ";
-                }
+            if (actionsString.length() > 0) {
+                actionsString.append(", ");
+            }
 
-                else {
-                    actionsString += numberOfCard + "x " + actionCard.toString() + ", ";
+            if (enumerated == true) {
+                actionsString.append('[').append(enumChar).append("] ");
+                enumChar += 1;
+            }
 
-                }
+            else if (numberOfCard > 1) {
+                actionsString.append(numberOfCard).append("x ");
             }
-        }
 
-        if (actionsString.length() == 0) {
-            return actionsString;
+            actionsString.append(this.kinds[id]);
         }
 
-        return actionsString.substring(0, actionsString.length() - 2);
+        return actionsString.toString();
     }
 
     /**
@@ -204,9 +523,13 @@ public class Astronaut implements Serializable {
      * @return a list of the cards in player's hand
      */
     public List<Card> getHand() {
-        List<Card> handCards = new ArrayList<>(this.actions);
-        handCards.addAll(this.oxygens);
-        handCards.sort(Card :: compareTo);
+        List<Card> handCards = new ArrayList<>(this.actionCount + this.oxygenCount);
+        for (int rank = 0; rank < CardCatalog.size(); rank++) {
+            int id = CardCatalog.byRank(rank);
+            for (int i = count(id); i > 0; i--) {
+                handCards.add(this.kinds[id]);
+            }
+        }
         return handCards;
     }
 
@@ -215,47 +538,80 @@ public class Astronaut implements Serializable {
      * @return a sring listing what the player has in their hands
      */
     public String getHandStr() {
-        String handString = "";
-        int numberOfOxy1 = hasCard(GameDeck.OXYGEN_1);
-        int numberOfOxy2 = hasCard(GameDeck.OXYGEN_2);
-
-        
-        if (hasCard(GameDeck.OXYGEN_2) >= 1) {
-            if (numberOfOxy2 == 1) {
-                handString += GameDeck.OXYGEN_2;
-            }
-
-            else {
-                handString += numberOfOxy2 + "x " + GameDeck.OXYGEN_2;
-            }
+        if (this.handString == null) {
+            StringBuilder handString = new StringBuilder();
+            appendCount(handString, count(GameDeck.OXYGEN_2_ID), GameDeck.OXYGEN_2);
 
-            if (numberOfOxy1 >= 1) {
-                handString += ", ";
+            if (count(GameDeck.OXYGEN_1_ID) >= 1) {
+                if (handString.length() > 0) {
+                    handString.append(", ");
+                }
+                appendCount(handString, count(GameDeck.OXYGEN_1_ID), GameDeck.OXYGEN_1);
             }
 
+            handString.append("; ").append(getActionsStr(false, false));
+            this.handString = handString.toString();
         }
 
-        if (hasCard(GameDeck.OXYGEN_1) >= 1) {
-            if (numberOfOxy1 == 1) {
-                handString += GameDeck.OXYGEN_1;
-            }
+        return this.handString;
+    }
 
-            else {
-                handString += numberOfOxy1 + "x " + GameDeck.OXYGEN_1;
-            }
+    /**
+     * appends "card" or "nx card" to a string, or nothing if n is 0
+     * @param string string being built
+     * @param n nº of cards
+     * @param card name of the card
+     */
+    private static void appendCount(StringBuilder string, int n, String card) {
+        if (n == 1) {
+            string.append(card);
         }
 
-        handString +=  "; " + getActionsStr(false, false);
+        else if (n > 1) {
+            string.append(n).append("x ").append(card);
+        }
+    }
 
-        return handString;
+    /**
+     * gives the player's name
+     * @return name of the player
+     */
+    public String getName() {
+        return this.name;
     }
 
     /**
-     * gives the collection of cards that make up the track
+     * gives the cards that make up the track, oldest first; the collection is a
+     * read-only view of the track, so it follows the player as they move
      * @return full track
      */
     public Collection<Card> getTrack() {
-        return track;
+        return new AbstractList<Card>() {
+            @Override
+            public Card get(int index) {
+                if (index < 0 || index >= trackSize) throw new IndexOutOfBoundsException(index);
+                return track[index];
+            }
+
+            @Override
+            public int size() {
+                return trackSize;
+            }
+        };
+    }
+
+    /**
+     * adds the nº of cards of each id on the player's track to an array the caller
+     * keeps, without the view getTrack makes; ids past the end of the array are left out
+     * @param counts nº of cards, indexed by id
+     */
+    void tallyTrack(int[] counts) {
+        for (int i = 0; i < this.trackSize; i++) {
+            int id = this.track[i].getId();
+            if (id < counts.length) {
+                counts[id]++;
+            }
+        }
     }
 
     /**
@@ -263,17 +619,18 @@ public class Astronaut implements Serializable {
      * @param card chosen card to be removed
      */
     public void hack(Card card) {
-        if (getHand().contains(card)) {
-            if (card instanceof Oxygen) {
-                this.oxygens.remove(card);
+        if (card != null && count(card.getId()) > 0) {
+            boolean outer = this.game.journal(Journal.HACK, this, card);
+            try {
+                takeFromHand(card.getId());
 
-                if (this.oxygens.size() == 0) {
-                    game.killPlayer(this);
+                if (card instanceof Oxygen && this.oxygenCount == 0) {
+                    game.killPlayer(this, SimulationStats.Death.HACKED);
                 }
             }
 
-            else {
-                this.actions.remove(card);
+            finally {
+                this.game.journaled(outer);
             }
         }
 
@@ -290,33 +647,35 @@ public class Astronaut implements Serializable {
     public Card hack(String card) {
         if (card == null) throw new IllegalArgumentException();
 
-        if (getHandStr().contains(card)) {
-            for (Card cardsCard : getHand()) {
-                if (cardsCard.toString().equals(card)) {
-                    hack(cardsCard);
+        int id = CardCatalog.idOf(card);
+        if (count(id) > 0) {
+            Card cardsCard = this.kinds[id];
+            hack(cardsCard);
 
-                    return cardsCard;
-                }
-            }
+            return cardsCard;
         }
 
         throw new IllegalArgumentException();
     }
 
+    /**
+     * gives the card a hack suit takes when the hacker does not choose one: the
+     * player's biggest oxygen, or their first action if they have no oxygen left
+     * @return card to take
+     */
+    Card pickCard() {
+        if (count(GameDeck.OXYGEN_2_ID) > 0) return this.kinds[GameDeck.OXYGEN_2_ID];
+        if (count(GameDeck.OXYGEN_1_ID) > 0) return this.kinds[GameDeck.OXYGEN_1_ID];
+        return cardAt(0, true);
+    }
+
     /**
      * tells player how many cards of a specific type you have
      * @param card specific card player asked about
      * @return nº of cards the player has
      */
     public int hasCard(String card) {
-        int cardQuantity = 0;
-
-        for (Card cardsCard : getHand()) {
-            if (cardsCard.toString().equals(card)) {
-                cardQuantity += 1;
-            }
-        }
-        return cardQuantity;
+        return count(CardCatalog.idOf(card));
     }
 
     /**
@@ -327,11 +686,8 @@ public class Astronaut implements Serializable {
      * @return boolean value
      */
     public boolean hasMeltedEyeballs() {
-        if (peekAtTrack().toString().equals(SpaceDeck.SOLAR_FLARE)) {
-            return true;
-        }
-
-        return false;
+        Card behind = peekAtTrack();
+        return behind != null && behind.getId() == SpaceDeck.SOLAR_FLARE_ID;
     }
 
     /**
@@ -351,10 +707,7 @@ public class Astronaut implements Serializable {
      * @return boolean value
      */
     public boolean isAlive() {
-        if (this.oxygens.size() == 0) {
-            return false;
-        }
-        return true;
+        return this.oxygenCount > 0;
     }
 
     /**
@@ -362,10 +715,15 @@ public class Astronaut implements Serializable {
      * @return topmost card from player's track
      */
     public Card laserBlast() {
-        if (this.track.size() == 0) throw new IllegalArgumentException();
+        if (this.trackSize == 0) throw new IllegalArgumentException();
+        if (this.game.journal(Journal.LASER_BLAST, this)) {
+            this.game.journaled(true);
+        }
 
-        Card topCard = peekAtTrack();
-        this.track.remove(peekAtTrack());
+        boolean hadWon = hasWon();
+        Card topCard = this.track[--this.trackSize];
+        this.track[this.trackSize] = null;
+        standingChanged(hadWon);
 
         return topCard;
     }
@@ -375,19 +733,7 @@ public class Astronaut implements Serializable {
      * @return nº of oxygen player has left
      */
     public int oxygenRemaining() {
-        int oxygenQuantity = 0;
-
-        for (Oxygen oxygensOxygen : this.oxygens) {
-            if (oxygensOxygen.getValue() == 2) {
-                oxygenQuantity += 2;
-            }
-
-            if (oxygensOxygen.getValue() == 1) {
-                oxygenQuantity += 1;
-            }
-        }
-
-        return oxygenQuantity;
+        return this.oxygenTotal;
     }
 
     /**
@@ -396,13 +742,11 @@ public class Astronaut implements Serializable {
      * @return card behind player
      */
     public Card peekAtTrack() {
-        List<Card> trackList = new ArrayList<>(this.track);
-
-        if (this.track.size() == 0) {
+        if (this.trackSize == 0) {
             return null;
         }
 
-        return trackList.get(this.track.size() - 1);
+        return this.track[this.trackSize - 1];
     }
 
     /**
@@ -410,52 +754,84 @@ public class Astronaut implements Serializable {
      * @return oxygen(1) to the player who used siphon
      */
     public Oxygen siphon() {
-        if (this.oxygens.size() == 0) throw new IllegalStateException();
-        Oxygen removedOxygen = this.oxygens.get(0);
+        if (this.oxygenCount == 0) throw new IllegalStateException();
 
-        if (removedOxygen.getValue() == 1) {
-            this.oxygens.remove(removedOxygen);
+        boolean outer = this.game.journal(Journal.SIPHON, this);
+        try {
+            if (count(GameDeck.OXYGEN_1_ID) > 0) {
+                Oxygen removedOxygen = (Oxygen)takeFromHand(GameDeck.OXYGEN_1_ID);
 
-            if (oxygenRemaining() == 0) {
-                this.game.killPlayer(this);
+                if (oxygenRemaining() == 0) {
+                    this.game.killPlayer(this, SimulationStats.Death.SIPHONED);
+                }
+
+                return removedOxygen;
             }
 
-            return removedOxygen;
-        }
+            else {
+                Oxygen[] splitRemovedOxygen = splitOxygen();
+                takeFromHand(GameDeck.OXYGEN_2_ID);
+                addToHand(splitRemovedOxygen[0]);
 
-        else {
-            Oxygen[] splitRemovedOxygen = game.splitOxygen(removedOxygen);
-            this.oxygens.add(splitRemovedOxygen[0]);
-            this.oxygens.remove(removedOxygen);
+                return splitRemovedOxygen[1];
+            }
+        }
 
-            return splitRemovedOxygen[1];
+        finally {
+            this.game.journaled(outer);
         }
     }
 
     /**
-     * removes a random card from one player and gives it to the one who used steal
+     * removes a random card from one player and gives it to the one who used steal;
+     * the card is chosen with the game's randomizer for steals
      * @return random card stolen from player's hand
      */
     public Card steal() {
-        Random random = new Random();
-        List<Card> fullhand = new ArrayList<>(getHand());
-        Card stolenCard = fullhand.get(random.nextInt(fullhand.size()));
+        Card stolenCard = cardAt(this.game.getStealRandom().nextInt(handSize()), false);
 
-        hack(stolenCard);
+        //the card is chosen at random, so the journal keeps which one it was
+        boolean outer = this.game.journal(Journal.STEAL, this, stolenCard);
+        try {
+            hack(stolenCard);
+        }
+
+        finally {
+            this.game.journaled(outer);
+        }
 
         return stolenCard;
     }
 
+    /**
+     * plays a journaled steal again: takes the card the journal kept, moving the
+     * game's randomizer for steals on as the steal did
+     * @param card card that was stolen
+     */
+    void steal(Card card) {
+        this.game.getStealRandom().nextInt(handSize());
+        hack(card);
+    }
+
     /**
      * swap's player's track with the swapee's track
      * @param swapee player whose track gets swapped
      */
     public void swapTrack(Astronaut swapee) {
-        List<Card> swapperTrack = new ArrayList<>(this.track);
-        List<Card> swapeeTrack = new ArrayList<>(swapee.track);
+        if (this.game.journal(Journal.SWAP_TRACK, this, swapee)) {
+            this.game.journaled(true);
+        }
+        boolean hadWon = hasWon();
+        boolean swapeeHadWon = swapee.hasWon();
+        Card[] swapperTrack = this.track;
+        int swapperSize = this.trackSize;
 
-        this.track = swapeeTrack;
+        this.track = swapee.track;
+        this.trackSize = swapee.trackSize;
         swapee.track = swapperTrack;
+        swapee.trackSize = swapperSize;
+        standingChanged(hadWon);
+        swapee.standingChanged(swapeeHadWon);
     }
 
     /**
@@ -0,0 +1,252 @@
+package selfish;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import com.sun.management.ThreadMXBean;
+
+import selfish.batch.BatchEngine;
+import selfish.deck.Card;
+
+/**
+ * checks on the engine that are run by hand or before a release, rather than
+ * while playing: each one prints what it found and exits with 1 if it failed
+ * <pre> usage: java selfish.EngineCheck --legacy-save
+ *      | --verify-batch [games] [players] [first seed] | --env [games] [steps] [players] </pre>
+ * @author sofia hu
+ * @version 1.0
+ */
+public final class EngineCheck {
+
+    /**
+     * game saved with Java serialisation by the first version of the engine
+     */
+    public final static String LEGACY_SAVE = "io/LegacySave.ser";
+
+    /**
+     * players of the legacy save as it was written, in the order getAllPlayers
+     * gives them: name, hand and track
+     */
+    private final static String[][] LEGACY_PLAYERS = {
+        {"Bo", "Oxygen(1); Hack suit, Tractor beam", "Solar flare, Solar flare"},
+        {"Cy", "Oxygen(1); Oxygen siphon", "Cosmic radiation, Cosmic radiation, Useful junk"},
+        {"Ann", "Oxygen(1); Laser blast, Rocket booster", "Blank space, Hyperspace, Useful junk"}
+    };
+
+    /**
+     * sizes of the game deck, game discard, space deck and space discard of the legacy save
+     */
+    private final static int[] LEGACY_DECKS = {38, 32, 34, 8};
+
+    /**
+     * not to be created
+     */
+    private EngineCheck() { }
+
+    /**
+     * loads the legacy save, checks its players and decks are as they were saved,
+     * then saves it again with Java serialisation and with saveState, and checks
+     * all three copies play out the same way
+     * <pre> usage: --legacy-save </pre>
+     * @param args command line arguments after --legacy-save
+     * @return whether the check passed
+     * @throws GameException when the save cannot be loaded or saved again
+     */
+    public static boolean legacySave(String[] args) throws GameException {
+        GameEngine game = GameEngine.loadState(LEGACY_SAVE);
+        boolean same = game.getCurrentPlayer() != null && game.getCurrentPlayer().getName().equals("Ann")
+            && game.getFullPlayerCount() == LEGACY_PLAYERS.length;
+
+        int p = 0;
+        for (Astronaut player : game.getAllPlayers()) {
+            String[] expected = LEGACY_PLAYERS[p++];
+            same &= player.getName().equals(expected[0])
+                && player.getHandStr().equals(expected[1])
+                && String.join(", ", player.getTrack().stream().map(Card::toString).toArray(String[]::new)).equals(expected[2]);
+        }
+        int[] decks = {game.getGameDeck().size(), game.getGameDiscard().size(),
+            game.getSpaceDeck().size(), game.getSpaceDiscard().size()};
+        for (int i = 0; i < decks.length; i++) {
+            same &= decks[i] == LEGACY_DECKS[i];
+        }
+        System.out.printf("%-12s %s%n", "loaded", same ? "as saved" : "FAIL");
+
+        GameEngine serialised;
+        GameEngine binary;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(game);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                serialised = (GameEngine)in.readObject();
+            }
+
+            File file = File.createTempFile("selfish", ".sav");
+            file.deleteOnExit();
+            game.saveState(file.getPath());
+            binary = GameEngine.loadState(file.getPath());
+        }
+
+        catch(IOException | ClassNotFoundException ex) {
+            throw new GameException("An error occurred when saving the game again", ex);
+        }
+
+        String played = playOut(game);
+        boolean replayed = played.equals(playOut(serialised)) && played.equals(playOut(binary));
+        System.out.printf("%-12s %s%s%n", "played out", played, replayed ? "" : " FAIL");
+        return same && replayed;
+    }
+
+    /**
+     * plays a batch of games on the batch engine and again one at a time on the
+     * game engine, and prints the turns per second of each and the nº of games whose
+     * outcome differs; fails if any does
+     * <pre> usage: --verify-batch [games] [players] [first seed] </pre>
+     * @param args command line arguments after --verify-batch
+     * @return whether the check passed
+     * @throws GameException when the card files cannot be read
+     */
+    public static boolean verifyBatch(String[] args) throws GameException {
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int players = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        long firstSeed = args.length > 3 ? Long.parseLong(args[3]) : 0;
+
+        BatchEngine batch = new BatchEngine(Simulation.ACTION_CARDS, Simulation.SPACE_CARDS, games, players);
+        batch.reset(firstSeed);
+        batch.run();
+        long start = System.nanoTime();
+        batch.reset(firstSeed);
+        long batchTurns = batch.run();
+        long batchNanos = System.nanoTime() - start;
+
+        Simulation simulation = new Simulation(Simulation.ACTION_CARDS, Simulation.SPACE_CARDS, players);
+        long engineTurns = 0;
+        long engineNanos = 0;
+        int mismatches = 0;
+        for (int g = 0; g < games; g++) {
+            Simulation.Report report = new Simulation.Report(players);
+            start = System.nanoTime();
+            GameEngine game = simulation.playGame(firstSeed + g, report);
+            engineNanos += System.nanoTime() - start;
+            engineTurns += report.getTurns();
+
+            boolean same = !batch.isFailed(g);
+            if (same) {
+                same = report.getTurns() == batch.getTurns(g);
+                for (int seat = 0; seat < players; seat++) {
+                    same &= (report.getStats().getWins(seat) > 0) == (batch.getWinner(g) == seat);
+                }
+                for (Astronaut player : game.getAllPlayers()) {
+                    int seat = Integer.parseInt(player.getName().substring("Player ".length())) - 1;
+                    Card top = player.peekAtTrack();
+                    same &= player.oxygenRemaining() == batch.getOxygen(g, seat)
+                        && player.distanceFromShip() == batch.getDistance(g, seat)
+                        && player.getHand().size() == batch.getHandSize(g, seat)
+                        && (top == null ? -1 : top.getId()) == batch.getTrackTop(g, seat);
+                }
+            }
+            if (!same) {
+                if (mismatches < 10) {
+                    System.out.printf("mismatch     seed %d%n", firstSeed + g);
+                }
+                mismatches++;
+            }
+        }
+
+        System.out.printf("games        %d (seeds %d to %d)%n", games, firstSeed, firstSeed + games - 1);
+        System.out.printf("batch        %.1f turns/second%n", batchTurns * 1e9 / batchNanos);
+        System.out.printf("engine       %.1f turns/second%n", engineTurns * 1e9 / engineNanos);
+        System.out.printf("mismatches   %d%n", mismatches);
+        return mismatches == 0;
+    }
+
+    /**
+     * steps a set of training games with random actions, half of them travelling,
+     * and prints the steps per second, the bytes allocated per step, resets
+     * included, and how often the random bot won; only fails if a game does
+     * <pre> usage: --env [games] [steps] [players] </pre>
+     * @param args command line arguments after --env
+     * @return whether the check passed
+     * @throws GameException when the card files cannot be read
+     */
+    public static boolean env(String[] args) throws GameException {
+        int envs = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int steps = args.length > 2 ? Integer.parseInt(args[2]) : 10000;
+        int players = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        ThreadMXBean threads = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+
+        GameEnv env = new GameEnv(Simulation.ACTION_CARDS, Simulation.SPACE_CARDS, envs, players);
+        env.reset(0);
+        int[] actions = new int[envs];
+        Random random = new Random(0);
+        long episodes = 0;
+        long wins = 0;
+
+        long start = System.nanoTime();
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int step = 0; step < steps; step++) {
+            for (int i = 0; i < envs; i++) {
+                actions[i] = random.nextBoolean() ? GameEnv.TRAVEL : random.nextInt(GameEnv.ACTIONS);
+            }
+            env.stepAll(actions);
+            for (int i = 0; i < envs; i++) {
+                if (env.getDone()[i]) {
+                    episodes++;
+                    wins += env.getRewards()[i] > 0 ? 1 : 0;
+                }
+            }
+        }
+        long bytes = threads.getCurrentThreadAllocatedBytes() - before;
+        long nanos = System.nanoTime() - start;
+
+        long total = (long)envs * steps;
+        System.out.printf("steps        %d (%d games, %d players)%n", total, envs, players);
+        System.out.printf("steps/second %.1f%n", total * 1e9 / nanos);
+        System.out.printf("bytes/step   %.1f, with %d games reset%n", (double)bytes / total, episodes);
+        System.out.printf("bot wins     %.2f%%, %d failed%n", episodes == 0 ? 0 : wins * 100.0 / episodes, env.getFailed());
+        return true;
+    }
+
+    /**
+     * plays a game on with the simulation's bot until it is over
+     * @param game game to play
+     * @return nº of turns played and the winner
+     */
+    private static String playOut(GameEngine game) {
+        int turns = 0;
+        if (game.getCurrentPlayer() != null) {
+            Simulation.takeTurn(game, game.getCurrentPlayer());
+            game.endTurn();
+            turns++;
+        }
+        while (!game.gameOver() && turns < Simulation.MAX_TURNS) {
+            game.startTurn();
+            Simulation.takeTurn(game, game.getCurrentPlayer());
+            game.endTurn();
+            turns++;
+        }
+        return turns + " turns, winner " + game.getWinner();
+    }
+
+    public static void main(String[] args) throws GameException {
+        boolean passed = true;
+        if (args.length > 0 && args[0].equals("--legacy-save")) {
+            passed = legacySave(args);
+        }
+        else if (args.length > 0 && args[0].equals("--verify-batch")) {
+            passed = verifyBatch(args);
+        }
+        else if (args.length > 0 && args[0].equals("--env")) {
+            passed = env(args);
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package selfish;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * counters and timers kept by every game in the process, read with snapshot;
+ * they are off unless the system property selfish.metrics is true or setEnabled
+ * turns them on, and cost a single flag check while off
+ * @author sofia hu
+ * @version 1.0
+ */
+public final class EngineMetrics {
+
+    /**
+     * things that are counted
+     */
+    public enum Counter {
+        /**
+         * turns started
+         */
+        TURNS,
+
+        /**
+         * calls to travel
+         */
+        TRAVELS,
+
+        /**
+         * cards drawn from the top of a deck
+         */
+        DRAWS,
+
+        /**
+         * draws from an empty deck
+         */
+        EMPTY_DRAWS,
+
+        /**
+         * oxygen splits that had to take oxygen from the discard pile
+         */
+        SPLIT_FALLBACKS,
+
+        /**
+         * decks merged and reshuffled
+         */
+        RESHUFFLES,
+
+        /**
+         * players killed
+         */
+        DEATHS
+    }
+
+    /**
+     * things that are timed
+     */
+    public enum Timer {
+        /**
+         * from startTurn to endTurn
+         */
+        TURN,
+
+        /**
+         * saveState
+         */
+        SAVE,
+
+        /**
+         * loadState
+         */
+        LOAD
+    }
+
+    /**
+     * shows that metrics are being kept
+     */
+    private static volatile boolean enabled = Boolean.getBoolean("selfish.metrics");
+
+    /**
+     * value of each counter
+     */
+    private final static LongAdder[] COUNTS = adders(Counter.values().length);
+
+    /**
+     * nº of times each timer has been stopped
+     */
+    private final static LongAdder[] TIMES = adders(Timer.values().length);
+
+    /**
+     * total time on each timer
+     */
+    private final static LongAdder[] NANOS = adders(Timer.values().length);
+
+    /**
+     * longest time on each timer
+     */
+    private final static LongAccumulator[] MAX_NANOS = new LongAccumulator[Timer.values().length];
+
+    static {
+        for (int i = 0; i < MAX_NANOS.length; i++) {
+            MAX_NANOS[i] = new LongAccumulator(Math::max, 0);
+        }
+    }
+
+    private EngineMetrics() { }
+
+    /**
+     * tells whether metrics are being kept
+     * @return boolean value
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * turns keeping metrics on or off; what has been kept so far stays
+     * @param on whether to keep metrics
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * adds one to a counter, if metrics are being kept
+     * @param counter counter
+     */
+    public static void count(Counter counter) {
+        if (enabled) {
+            COUNTS[counter.ordinal()].increment();
+        }
+    }
+
+    /**
+     * gives the time to start timing from
+     * @return System.nanoTime, or 0 if metrics are not being kept
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    /**
+     * adds the time since start to a timer
+     * @param timer timer
+     * @param started what start gave, 0 meaning the timing was not started
+     */
+    public static void stop(Timer timer, long started) {
+        if (started != 0 && enabled) {
+            long nanos = System.nanoTime() - started;
+            TIMES[timer.ordinal()].increment();
+            NANOS[timer.ordinal()].add(nanos);
+            MAX_NANOS[timer.ordinal()].accumulate(nanos);
+        }
+    }
+
+    /**
+     * gives the value of a counter
+     * @param counter counter
+     * @return value
+     */
+    public static long get(Counter counter) {
+        return COUNTS[counter.ordinal()].sum();
+    }
+
+    /**
+     * gives every counter, and the count, total and longest time of every timer,
+     * by name: "draws", "turn.count", "turn.nanos", "turn.maxNanos" and so on
+     * @return metrics by name, in a fixed order
+     */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> metrics = new LinkedHashMap<>();
+        for (Counter counter : Counter.values()) {
+            metrics.put(name(counter), COUNTS[counter.ordinal()].sum());
+        }
+        for (Timer timer : Timer.values()) {
+            String name = name(timer);
+            metrics.put(name + ".count", TIMES[timer.ordinal()].sum());
+            metrics.put(name + ".nanos", NANOS[timer.ordinal()].sum());
+            metrics.put(name + ".maxNanos", MAX_NANOS[timer.ordinal()].get());
+        }
+        return metrics;
+    }
+
+    /**
+     * sets every counter and timer back to 0
+     */
+    public static void reset() {
+        for (LongAdder adder : COUNTS) adder.reset();
+        for (LongAdder adder : TIMES) adder.reset();
+        for (LongAdder adder : NANOS) adder.reset();
+        for (LongAccumulator max : MAX_NANOS) max.reset();
+    }
+
+    /**
+     * gives the name a metric is shown by: its enum name in camel case
+     * @param metric counter or timer
+     * @return name
+     */
+    private static String name(Enum<?> metric) {
+        String[] words = metric.name().toLowerCase(Locale.ROOT).split("_");
+        StringBuilder name = new StringBuilder(words[0]);
+        for (int i = 1; i < words.length; i++) {
+            name.append(Character.toUpperCase(words[i].charAt(0))).append(words[i], 1, words[i].length());
+        }
+        return name.toString();
+    }
+
+    /**
+     * makes an array of adders
+     * @param length nº of adders
+     * @return adders
+     */
+    private static LongAdder[] adders(int length) {
+        LongAdder[] adders = new LongAdder[length];
+        for (int i = 0; i < length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -1,33 +1,64 @@
 package selfish;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
 import selfish.deck.GameDeck;
 import selfish.deck.Card;
+import selfish.deck.CardCatalog;
 import selfish.deck.Deck;
 import selfish.deck.SpaceDeck;
 import selfish.deck.Oxygen;
 import java.io.*;
 
 /**
- * creates game engine
+ * creates game engine; it is not thread-safe, so a game shared between threads
+ * is only touched through a GameQueue, which has a method for each public
+ * method here
  * @author sofia hu
  * @version 1.0 
  */
 public class GameEngine implements Serializable {
 
     /**
-     * shows the players that are alive
+     * shows the players that are alive, in turn order
      */
-    private Collection<Astronaut> activePlayers;
+    private ArrayDeque<Astronaut> activePlayers;
 
     /**
      * shows the players that are dead
      */
     private List<Astronaut> corpses;
 
+    /**
+     * every player, in the order they joined
+     */
+    private List<Astronaut> seats;
+
+    /**
+     * nº of players who have reached the ship and are alive
+     */
+    private int winners;
+
+    /**
+     * player getWinner gives, kept as players start and stop having won, or null
+     */
+    private transient Astronaut winner;
+
+    /**
+     * seat of the winner, or -1 when there is none
+     */
+    private transient int winnerSeat = -1;
+
     /**
      * player whose turn is in progress
      */
@@ -41,7 +72,17 @@ public class GameEngine implements Serializable {
     /**
      * randomizer for shuffling
      */
-    private Random random;
+    private GameRandom random;
+
+    /**
+     * randomizer for choosing the cards stolen from players
+     */
+    private GameRandom stealRandom;
+
+    /**
+     * randomizer for the decisions of players the computer plays
+     */
+    private GameRandom botRandom;
 
     /**
      * withdrawable action cards 
@@ -63,11 +104,157 @@ public class GameEngine implements Serializable {
      */
     private SpaceDeck spaceDiscard;
 
+    /**
+     * journal the game's operations are appended to, or null when not journaling
+     */
+    private transient Journal journal;
+
+    /**
+     * snapshot file the journal follows on from
+     */
+    private transient String journalPath;
+
+    /**
+     * when the journal forces its writes out to the disk
+     */
+    private transient Journal.Sync journalSync;
+
+    /**
+     * nº of journaled operations after which saveState writes a new snapshot
+     */
+    private transient int snapshotEvery;
+
+    /**
+     * shows that an operation is being journaled, so the ones it calls are not
+     */
+    private transient boolean journaling;
+
+    /**
+     * number of the snapshot the game was loaded from, 0 if it has none
+     */
+    private transient long generation;
+
+    /**
+     * seed the game was created with, kept for recordings
+     */
+    private transient long seed;
+
+    /**
+     * path to the action cards the game was created with, or null if it was loaded
+     */
+    private transient String gameDeckPath;
+
+    /**
+     * path to the space cards the game was created with
+     */
+    private transient String spaceDeckPath;
+
+    /**
+     * state of the randomizer once the decks were shuffled, to tell whether anything has been played since
+     */
+    private transient long createdState;
+
+    /**
+     * when the turn in progress started, for EngineMetrics
+     */
+    private transient long turnStarted;
+
+    /**
+     * flight recorder event of the turn in progress, null when none is being recorded
+     */
+    private transient TurnEvent turnEvent;
+
+    /**
+     * statistics the game's events are counted in, or null
+     */
+    private transient SimulationStats stats;
+
+    /**
+     * what a player who runs out of oxygen dies of while travel or an action is
+     * being resolved, whatever took their last oxygen; null when neither is
+     */
+    private transient SimulationStats.Death dyingOf;
+
+    /**
+     * shows that the winner has been counted in the statistics
+     */
+    private transient boolean winnerCounted;
+
     /**
      * unique ID for GameEngine
      */
     private final static long serialVersionUID = 6l;
 
+    /**
+     * serialised form of the game: the fields it had before the binary format, with
+     * the players alive as a collection and a single randomizer, then the seats and
+     * the other two randomizers, which older saves do not have
+     */
+    private final static ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("activePlayers", Collection.class),
+        new ObjectStreamField("corpses", List.class),
+        new ObjectStreamField("currentPlayer", Astronaut.class),
+        new ObjectStreamField("hasStarted", boolean.class),
+        new ObjectStreamField("random", Random.class),
+        new ObjectStreamField("gameDeck", GameDeck.class),
+        new ObjectStreamField("gameDiscard", GameDeck.class),
+        new ObjectStreamField("spaceDeck", SpaceDeck.class),
+        new ObjectStreamField("spaceDiscard", SpaceDeck.class),
+        new ObjectStreamField("seats", List.class),
+        new ObjectStreamField("stealRandom", Random.class),
+        new ObjectStreamField("botRandom", Random.class)
+    };
+
+    /**
+     * first four bytes of a save file in the binary format, "SLFS"
+     */
+    private final static int SAVE_MAGIC = 0x534C4653;
+
+    /**
+     * version of the binary save format written by saveState
+     */
+    private final static int SAVE_VERSION = 3;
+
+    /**
+     * save format flag: everything after the header is deflated
+     */
+    private final static int SAVE_DEFLATED = 1;
+
+    /**
+     * added to a snapshot's path to give its journal's path
+     */
+    public final static String JOURNAL_SUFFIX = ".journal";
+
+    /**
+     * effect of each space card, by card id; cards with none are just placed
+     */
+    private final static SpaceEffect[] SPACE_EFFECTS = new SpaceEffect[SpaceDeck.WORMHOLE_ID + 1];
+
+    static {
+        SPACE_EFFECTS[SpaceDeck.USEFUL_JUNK_ID] = (game, traveller) -> game.drawActions(traveller, 1);
+        SPACE_EFFECTS[SpaceDeck.MYSTERIOUS_NEBULA_ID] = (game, traveller) -> game.drawActions(traveller, 2);
+        SPACE_EFFECTS[SpaceDeck.HYPERSPACE_ID] = (game, traveller) -> true;
+        SPACE_EFFECTS[SpaceDeck.METEOROID_ID] = GameEngine::meteoroid;
+        SPACE_EFFECTS[SpaceDeck.COSMIC_RADIATION_ID] = (game, traveller) -> game.loseOxygen(traveller, 1);
+        SPACE_EFFECTS[SpaceDeck.ASTEROID_FIELD_ID] = (game, traveller) -> game.loseOxygen(traveller, 2);
+        SPACE_EFFECTS[SpaceDeck.WORMHOLE_ID] = GameEngine::wormhole;
+    }
+
+    /**
+     * effect of each action card, by card id; cards with none cannot be played as actions
+     */
+    private final static ActionEffect[] ACTION_EFFECTS = new ActionEffect[GameDeck.TRACTOR_BEAM_ID + 1];
+
+    static {
+        ACTION_EFFECTS[GameDeck.LASER_BLAST_ID] = (game, actor, target, choice) -> game.spaceDiscard.add(target.laserBlast());
+        ACTION_EFFECTS[GameDeck.HACK_SUIT_ID] = (game, actor, target, choice) -> game.take(actor, target, choice);
+        ACTION_EFFECTS[GameDeck.TRACTOR_BEAM_ID] = (game, actor, target, choice) -> actor.addToHand(target.steal());
+        ACTION_EFFECTS[GameDeck.OXYGEN_SIPHON_ID] = GameEngine::oxygenSiphon;
+        ACTION_EFFECTS[GameDeck.HOLE_IN_SUIT_ID] = GameEngine::holeInSuit;
+        ACTION_EFFECTS[GameDeck.TETHER_ID] = GameEngine::tether;
+        ACTION_EFFECTS[GameDeck.ROCKET_BOOSTER_ID] = (game, actor, target, choice) -> game.boost(actor);
+    }
+
     /**
      * creates game engine
      */
@@ -81,9 +268,13 @@ public class GameEngine implements Serializable {
      * @param spaceDeck space cards for the game
      */
     public GameEngine(long seed, String gameDeck, String spaceDeck) throws GameException {
-        this.activePlayers = new ArrayList<>();
+        this.activePlayers = new ArrayDeque<>();
         this.corpses = new ArrayList<>();
-        this.random = new Random(seed);
+        this.seats = new ArrayList<>();
+        GameRandom root = new GameRandom(seed);
+        this.random = root.split();
+        this.stealRandom = root.split();
+        this.botRandom = root.split();
         this.gameDeck = new GameDeck(gameDeck);
         this.gameDiscard = new GameDeck();
         this.spaceDeck = new SpaceDeck(spaceDeck);
@@ -91,6 +282,112 @@ public class GameEngine implements Serializable {
         
         this.gameDeck.shuffle(random);
         this.spaceDeck.shuffle(random);
+        this.seed = seed;
+        this.gameDeckPath = gameDeck;
+        this.spaceDeckPath = spaceDeck;
+        this.createdState = this.random.getState();
+    }
+
+    /**
+     * creates a game whose decks are left in the order their card files list
+     * them, not shuffled and with no players, for games to be reset from
+     * @param gameDeck action cards for the game
+     * @param spaceDeck space cards for the game
+     * @return game to reset from
+     * @throws GameException when there is an error in the reading of the file
+     */
+    static GameEngine template(String gameDeck, String spaceDeck) throws GameException {
+        GameEngine game = new GameEngine();
+        game.gameDeck = new GameDeck(gameDeck);
+        game.spaceDeck = new SpaceDeck(spaceDeck);
+        game.gameDeckPath = gameDeck;
+        game.spaceDeckPath = spaceDeck;
+        return game;
+    }
+
+    /**
+     * puts the game back as the constructor would make it with a new seed and the
+     * template's card files, with the same players joined and not yet started,
+     * reusing its decks, players and randomizers instead of making new ones
+     * @param seed seed for the randomizer
+     * @param template game made by template, whose decks are dealt from
+     * @throws IllegalStateException when the game is journaling or recording
+     */
+    void reset(long seed, GameEngine template) {
+        if (this.journal != null) throw new IllegalStateException();
+
+        this.activePlayers.clear();
+        this.corpses.clear();
+        for (Astronaut player : this.seats) {
+            player.reset();
+            this.activePlayers.add(player);
+        }
+        this.currentPlayer = null;
+        this.hasStarted = false;
+        this.winners = 0;
+        this.winner = null;
+        this.winnerSeat = -1;
+        this.winnerCounted = false;
+        this.dyingOf = null;
+
+        //the bot's randomizer stands in for the root the constructor splits the others off
+        this.botRandom.setSeed(seed);
+        this.botRandom.split(this.random);
+        this.botRandom.split(this.stealRandom);
+        this.botRandom.split(this.botRandom);
+        this.gameDeck.copyFrom(template.gameDeck);
+        this.gameDiscard.copyFrom(null);
+        this.spaceDeck.copyFrom(template.spaceDeck);
+        this.spaceDiscard.copyFrom(null);
+
+        this.gameDeck.shuffle(random);
+        this.spaceDeck.shuffle(random);
+        this.seed = seed;
+        this.gameDeckPath = template.gameDeckPath;
+        this.spaceDeckPath = template.spaceDeckPath;
+        this.createdState = this.random.getState();
+    }
+
+    /**
+     * gives a copy of the game, made in memory: decks, players, hands, tracks and the
+     * randomizer's state are all copied, so playing on with the copy leaves this game
+     * as it was, and both go on the same way if played the same way; the copy is not journaling
+     * @return copy of the game
+     */
+    public GameEngine copy() {
+        GameEngine game = new GameEngine();
+        game.random = new GameRandom(this.random);
+        game.stealRandom = new GameRandom(this.stealRandom);
+        game.botRandom = new GameRandom(this.botRandom);
+        game.hasStarted = this.hasStarted;
+        game.gameDeck = new GameDeck(this.gameDeck);
+        game.gameDiscard = new GameDeck(this.gameDiscard);
+        game.spaceDeck = new SpaceDeck(this.spaceDeck);
+        game.spaceDiscard = new SpaceDeck(this.spaceDiscard);
+
+        game.seats = new ArrayList<>(this.seats.size());
+        for (Astronaut player : this.seats) {
+            game.seats.add(new Astronaut(player, game));
+        }
+        game.activePlayers = new ArrayDeque<>(this.activePlayers.size());
+        for (Astronaut player : this.activePlayers) {
+            game.activePlayers.add(game.seats.get(this.seats.indexOf(player)));
+        }
+        game.corpses = new ArrayList<>(this.corpses.size());
+        for (Astronaut player : this.corpses) {
+            game.corpses.add(game.seats.get(this.seats.indexOf(player)));
+        }
+        if (this.currentPlayer != null) {
+            game.currentPlayer = game.seats.get(this.seats.indexOf(this.currentPlayer));
+        }
+        game.winners = this.winners;
+        game.winnerSeat = this.winnerSeat;
+        game.winner = this.winner == null ? null : game.seats.get(this.winnerSeat);
+        game.seed = this.seed;
+        game.gameDeckPath = this.gameDeckPath;
+        game.spaceDeckPath = this.spaceDeckPath;
+        game.createdState = this.createdState;
+        return game;
     }
 
     /**
@@ -102,8 +399,12 @@ public class GameEngine implements Serializable {
         if (activePlayers.size() == 5 || hasStarted == true){
             throw new IllegalStateException();
         }
+        if (this.journal != null) {
+            this.journal.append(Journal.ADD_PLAYER, player);
+        }
         Astronaut newasAstronaut = new Astronaut(player, this);
         this.activePlayers.add(newasAstronaut);
+        this.seats.add(newasAstronaut);
         return this.activePlayers.size();
     }
 
@@ -112,10 +413,23 @@ public class GameEngine implements Serializable {
      * @return nº of players alive
      */
     public int endTurn() {
+        if (this.journal != null) {
+            this.journal.append(Journal.END_TURN);
+        }
         if (this.currentPlayer.isAlive() == true) {
-            this.activePlayers.add(currentPlayer);
+            this.activePlayers.addLast(currentPlayer);
         }
         this.currentPlayer = null;
+
+        EngineMetrics.stop(EngineMetrics.Timer.TURN, this.turnStarted);
+        if (this.turnEvent != null) {
+            this.turnEvent.alive = this.activePlayers.size();
+            this.turnEvent.commit();
+            this.turnEvent = null;
+        }
+        if (this.journal != null) {
+            this.journal.turnEnded(this);
+        }
         return this.activePlayers.size();
     }
 
@@ -160,7 +474,7 @@ public class GameEngine implements Serializable {
      * @return nº of players when game started
      */
     public int getFullPlayerCount() {
-        return getAllPlayers().size();
+        return this.seats.size();
     }
 
     /**
@@ -200,13 +514,11 @@ public class GameEngine implements Serializable {
      * @return winning player or null
      */
     public Astronaut getWinner() {
-        for (Astronaut player : getAllPlayers()) {
-            if (player.hasWon() == true){
-                return player;
-            }
+        if (this.winner != null && this.stats != null && !this.winnerCounted) {
+            this.stats.win(this.winnerSeat);
+            this.winnerCounted = true;
         }
-        
-        return null;
+        return this.winner;
     }
 
     /**
@@ -214,147 +526,1175 @@ public class GameEngine implements Serializable {
      * @param corpse player who run out of oxygen
      */
     public void killPlayer(Astronaut corpse) {
-        this.activePlayers.remove(corpse);
-        for(Card actionCard : corpse.getActions()) {
-            this.gameDiscard.add(actionCard);
+        killPlayer(corpse, SimulationStats.Death.OTHER);
+    }
+
+    /**
+     * updates player status to dead, counting what they died of
+     * @param corpse player who run out of oxygen
+     * @param cause what the player died of
+     */
+    void killPlayer(Astronaut corpse, SimulationStats.Death cause) {
+        if (this.stats != null) {
+            this.stats.death(this.dyingOf != null ? this.dyingOf : cause);
+        }
+        boolean outer = journal(Journal.KILL_PLAYER, corpse);
+        EngineMetrics.count(EngineMetrics.Counter.DEATHS);
+        try {
+            this.activePlayers.remove(corpse);
+            for(Card actionCard : corpse.getActions()) {
+                this.gameDiscard.add(actionCard);
+            }
+
+            corpse.getActions().clear();
+            this.corpses.add(corpse);
         }
 
-        corpse.getActions().clear();
-        this.corpses.add(corpse);
+        finally {
+            journaled(outer);
+        }
     }
 
     /**
-     * allows objects to be serialised out to a file, saving and resuming in-progress games
+     * allows objects to be serialised out to a file, saving and resuming in-progress games;
+     * reads the binary format saveState writes, then plays the operations journaled
+     * since, and falls back to Java serialisation for files that are not in it
      * @param path pointer towards file where data is saved
      * @return GameEngine loaded from filepath
      * @throws GameException when an error occurs in loading the data from the file
      */
     public final static GameEngine loadState(String path) throws GameException {
-        try {
+        long started = EngineMetrics.start();
+        PersistenceEvent event = PersistenceEvent.start("load", path);
+        try (InputStream file = new BufferedInputStream(new FileInputStream(path))) {
+            file.mark(4);
+            DataInputStream in = new DataInputStream(file);
+            if (in.readInt() == SAVE_MAGIC) {
+                GameEngine game = readSnapshot(in);
+                if (game.generation != 0) {
+                    Journal.replay(path + JOURNAL_SUFFIX, game.generation, game);
+                }
+                return game;
+            }
+
             //deserialization
-            FileInputStream file = new FileInputStream(path);
-            ObjectInputStream in = new ObjectInputStream(file);
-            GameEngine loadedGameEngine = (GameEngine)in.readObject();
-            in.close();
-            file.close();
-            return loadedGameEngine;
+            file.reset();
+            ObjectInputStream objectIn = new ObjectInputStream(file);
+            return (GameEngine)objectIn.readObject();
         }
 
         catch(IOException ex) {
             throw new GameException("An error occurred when handling the file", ex);
         }
          
-        catch(ClassNotFoundException ex) {
+        catch(ClassNotFoundException | RuntimeException ex) {
             throw new GameException("An error occurred when deserializing", ex);
         }
+
+        finally {
+            EngineMetrics.stop(EngineMetrics.Timer.LOAD, started);
+            PersistenceEvent.finish(event);
+        }
     }
 
     /**
-     * deck1 gets restocked with cards on deck2
-     * @param deck1 deck to be restocked
-     * @param deck2 deck used to restock
+     * reads a game in the binary format, after its first four bytes
+     * @param in stream positioned just after the magic number
+     * @return game read
+     * @throws GameException when the data is not a game this version can read
+     * @throws IOException when the stream cannot be read
      */
-    public void mergeDecks(Deck deck1, Deck deck2) {
-        while (deck2.size() > 0) {
-            deck1.add(deck2.draw());
+    static GameEngine readSnapshot(DataInputStream in) throws GameException, IOException {
+        int version = in.readUnsignedShort();
+        if (version < 1 || version > SAVE_VERSION) {
+            throw new GameException("Unsupported save version " + version, null);
+        }
+        int flags = in.readUnsignedByte();
+        long generation = version >= 2 ? in.readLong() : 0;
+        if ((flags & SAVE_DEFLATED) != 0) {
+            in = new DataInputStream(new BufferedInputStream(new InflaterInputStream(in)));
+        }
+
+        Card[] table = new Card[in.readUnsignedShort()];
+        for (int i = 0; i < table.length; i++) {
+            String name = in.readUTF();
+            String description = in.readUTF();
+            int id = CardCatalog.idOf(name);
+            table[i] = id == GameDeck.OXYGEN_1_ID || id == GameDeck.OXYGEN_2_ID
+                ? CardCatalog.card(id) : CardCatalog.card(name, description);
+        }
+
+        GameEngine game = new GameEngine();
+        game.generation = generation;
+        if (version >= 3) {
+            game.random = new GameRandom(in.readLong(), in.readLong());
+            game.stealRandom = new GameRandom(in.readLong(), in.readLong());
+            game.botRandom = new GameRandom(in.readLong(), in.readLong());
+        }
+        else {
+            //older saves kept a single generator of another kind, so its state seeds the streams
+            GameRandom root = new GameRandom(in.readLong());
+            game.random = root.split();
+            game.stealRandom = root.split();
+            game.botRandom = root.split();
+        }
+        game.hasStarted = in.readBoolean();
+        game.gameDeck = new GameDeck();
+        game.gameDiscard = new GameDeck();
+        game.spaceDeck = new SpaceDeck();
+        game.spaceDiscard = new SpaceDeck();
+        for (Deck deck : new Deck[] {game.gameDeck, game.gameDiscard, game.spaceDeck, game.spaceDiscard}) {
+            for (int i = in.readInt(); i > 0; i--) {
+                deck.add(readCard(in, table));
+            }
+        }
+
+        Astronaut[] players = new Astronaut[in.readUnsignedByte()];
+        for (int p = 0; p < players.length; p++) {
+            players[p] = new Astronaut(in.readUTF(), game);
+            for (int kinds = in.readUnsignedShort(); kinds > 0; kinds--) {
+                Card card = readCard(in, table);
+                for (int i = in.readUnsignedShort(); i > 0; i--) {
+                    players[p].addToHand(card);
+                }
+            }
+            for (int i = in.readUnsignedShort(); i > 0; i--) {
+                players[p].addToTrack(readCard(in, table));
+            }
+        }
+
+        game.seats = new ArrayList<>(Arrays.asList(players));
+        game.activePlayers = new ArrayDeque<>();
+        for (int i = in.readUnsignedByte(); i > 0; i--) {
+            game.activePlayers.add(players[in.readUnsignedByte()]);
+        }
+        game.corpses = new ArrayList<>();
+        for (int i = in.readUnsignedByte(); i > 0; i--) {
+            game.corpses.add(players[in.readUnsignedByte()]);
         }
-        deck1.shuffle(random);
+        int current = in.readByte();
+        game.currentPlayer = current < 0 ? null : players[current];
+        game.findWinner();
+        return game;
     }
 
     /**
-     * allows objects to be serialised out to a file, saving and resuming in-progress games
-     * @param path pointer towards file where data is saved
-     * @throws GameException when an error occurs in saving the data into the file
+     * reads a card written as its index in the save's card table
+     * @param in stream to read from
+     * @param table cards of the save, by index
+     * @return card read
+     * @throws IOException when the stream cannot be read
      */
-    public void saveState(String path) throws GameException {
-        try {  
-            //serialization
-            FileOutputStream file = new FileOutputStream(path);
-            ObjectOutputStream out = new ObjectOutputStream(file);
-            out.writeObject(this);
-            out.close();
-            file.close();
+    private static Card readCard(DataInputStream in, Card[] table) throws IOException {
+        return table[table.length <= 256 ? in.readUnsignedByte() : in.readUnsignedShort()];
+    }
+
+    /**
+     * writes the game out in its serialised form
+     * @param out stream to write to
+     * @throws IOException when the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("activePlayers", new ArrayList<>(this.activePlayers));
+        fields.put("corpses", this.corpses);
+        fields.put("currentPlayer", this.currentPlayer);
+        fields.put("hasStarted", this.hasStarted);
+        fields.put("random", this.random);
+        fields.put("gameDeck", this.gameDeck);
+        fields.put("gameDiscard", this.gameDiscard);
+        fields.put("spaceDeck", this.spaceDeck);
+        fields.put("spaceDiscard", this.spaceDiscard);
+        fields.put("seats", this.seats);
+        fields.put("stealRandom", this.stealRandom);
+        fields.put("botRandom", this.botRandom);
+        out.writeFields();
+    }
+
+    /**
+     * reads the game back from its serialised form; a save from before the seats
+     * takes its players in the order getAllPlayers gives them, and one from before
+     * the split randomizers seeds them from its single randomizer
+     * @param in stream to read from
+     * @throws IOException when the stream cannot be read or misses part of the game
+     * @throws ClassNotFoundException when a class in the stream cannot be found
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        try {
+            this.activePlayers = new ArrayDeque<>((Collection<Astronaut>)fields.get("activePlayers", null));
+            this.corpses = new ArrayList<>((List<Astronaut>)fields.get("corpses", null));
+            this.currentPlayer = (Astronaut)fields.get("currentPlayer", null);
+            this.hasStarted = fields.get("hasStarted", false);
+            this.gameDeck = (GameDeck)fields.get("gameDeck", null);
+            this.gameDiscard = (GameDeck)fields.get("gameDiscard", null);
+            this.spaceDeck = (SpaceDeck)fields.get("spaceDeck", null);
+            this.spaceDiscard = (SpaceDeck)fields.get("spaceDiscard", null);
+            List<Astronaut> seats = (List<Astronaut>)fields.get("seats", null);
+            this.seats = seats != null ? new ArrayList<>(seats) : getAllPlayers();
+
+            Random random = (Random)fields.get("random", null);
+            if (random instanceof GameRandom && !fields.defaulted("stealRandom")) {
+                this.random = (GameRandom)random;
+                this.stealRandom = (GameRandom)fields.get("stealRandom", null);
+                this.botRandom = (GameRandom)fields.get("botRandom", null);
+            }
+            else {
+                GameRandom root = new GameRandom(random.nextLong());
+                this.random = root.split();
+                this.stealRandom = root.split();
+                this.botRandom = root.split();
+            }
         }
 
-        catch(IOException ex) {
-            throw new GameException("An error occured while handling the file", ex);
+        catch(ClassCastException | NullPointerException ex) {
+            throw (IOException)new InvalidObjectException("Not a saved game").initCause(ex);
+        }
+
+        if (this.gameDeck == null || this.gameDiscard == null || this.spaceDeck == null
+                || this.spaceDiscard == null || this.stealRandom == null || this.botRandom == null) {
+            throw new InvalidObjectException("Not a saved game");
+        }
+        for (Astronaut player : this.seats) {
+            if (player.hasWon()) {
+                this.winners++;
+            }
         }
+        findWinner();
     }
 
     /**
-     * splits oxygen (2) into 2 oxygen(1)
-     * @param dbl oxygen(2) to be split
-     * @return array with 2 oxygen(1)
+     * deck1 gets restocked with cards on deck2
+     * @param deck1 deck to be restocked
+     * @param deck2 deck used to restock
      */
-    public Oxygen[] splitOxygen(Oxygen dbl) {
-        if (dbl.getValue() == 2) {
-            if (gameDeck.size() >= 2) {
-                return gameDeck.splitOxygen(dbl);
-            }
-            if (gameDiscard.size() >= 2) {
-                return gameDiscard.splitOxygen(dbl);
+    public void mergeDecks(Deck deck1, Deck deck2) {
+        boolean outer = false;
+        if (this.journal != null && !this.journaling) {
+            int code1 = deckCode(deck1);
+            int code2 = deckCode(deck2);
+            if (code1 >= 0 && code2 < 0) {
+                //the cards come from outside the game, so replaying needs to know them
+                this.journal.appendMerge(code1, deck2.getCards());
             }
             else {
-                Oxygen[] splitOxygens = new Oxygen[2];
-                splitOxygens[0] = gameDeck.drawOxygen(1);
-                splitOxygens[1] = gameDiscard.drawOxygen(1);
-                gameDiscard.add(dbl);
-                return splitOxygens;
+                this.journal.appendMerge(code1, code2, deck1.size() + deck2.size());
             }
+            outer = this.journaling = true;
+        }
+
+        EngineMetrics.count(EngineMetrics.Counter.RESHUFFLES);
+        try {
+            deck1.addAll(deck2);
+            deck1.shuffle(random);
+        }
+
+        finally {
+            journaled(outer);
         }
-        return null;
     }
 
     /**
-     * deals cards to each character and sets hasStarted
+     * allows objects to be serialised out to a file, saving and resuming in-progress games
+     * @param path pointer towards file where data is saved
+     * @throws GameException when an error occurs in saving the data into the file
      */
-    public void startGame() {
-        if (this.hasStarted == true) throw new IllegalStateException();
-        if (activePlayers.size() < 2 || activePlayers.size() >5) throw new IllegalStateException();
-        else {
-            for (int i = 0; i < 4; i++) {
-                for (Astronaut astronaut : activePlayers) {
-                    astronaut.addToHand(gameDeck.draw());
+    public void saveState(String path) throws GameException {
+        saveState(path, false);
+    }
+
+    /**
+     * saves the game to a file in the binary format, optionally deflated
+     * @param path pointer towards file where data is saved
+     * @param compress whether to deflate the save
+     * @throws GameException when an error occurs in saving the data into the file
+     */
+    public void saveState(String path, boolean compress) throws GameException {
+        long started = EngineMetrics.start();
+        PersistenceEvent event = PersistenceEvent.start("save", path);
+        try {
+            if (this.journal != null && path.equals(this.journalPath)) {
+                if (this.journal.records() >= this.snapshotEvery) {
+                    snapshot();
+                }
+                else {
+                    this.journal.flush();
                 }
             }
-            
-            for (Astronaut astronaut : activePlayers) {
-                astronaut.addToHand(gameDeck.drawOxygen(2));
-                for (int i = 0; i < 4; i++) {
-                    astronaut.addToHand(gameDeck.drawOxygen(1));
+
+            else {
+                try (OutputStream file = new BufferedOutputStream(new FileOutputStream(path))) {
+                    writeSnapshot(file, compress, 0);
                 }
             }
-            hasStarted = true;
+        }
+
+        catch(IOException ex) {
+            throw new GameException("An error occured while handling the file", ex);
+        }
+
+        finally {
+            EngineMetrics.stop(EngineMetrics.Timer.SAVE, started);
+            PersistenceEvent.finish(event);
         }
     }
 
     /**
-     * updates currentPlayer and activePlayers
+     * starts appending every operation on the game to a journal: writes a snapshot
+     * to the path, and from then on saveState to the same path only writes out the
+     * journal, until enough operations have built up to be worth a new snapshot
+     * (cards put straight into the decks, without going through the game or its
+     * players, are not journaled)
+     * @param path pointer towards file where the snapshot is saved
+     * @param sync when the journal forces its writes out to the disk
+     * @param snapshotEvery nº of operations after which saving writes a new snapshot
+     * @throws GameException when an error occurs in saving the data into the file
      */
-    public void startTurn() {
-        if (!hasStarted || this.currentPlayer != null || gameOver() == true) throw new IllegalStateException();
-        
-        this.currentPlayer = this.activePlayers.iterator().next();
-        this.activePlayers.remove(this.currentPlayer);
+    public void startJournal(String path, Journal.Sync sync, int snapshotEvery) throws GameException {
+        if (path == null || sync == null || snapshotEvery < 1) throw new IllegalArgumentException();
+
+        stopJournal();
+        this.journalPath = path;
+        this.journalSync = sync;
+        this.snapshotEvery = snapshotEvery;
+        try {
+            snapshot();
+        }
+
+        catch(IOException ex) {
+            this.journalPath = null;
+            throw new GameException("An error occured while handling the file", ex);
+        }
     }
 
     /**
-     * reduces player's oxygen by 2, draws a card, adds card to player's track
-     * (unless the card is Gravitational anomaly) and returns the drawn card
-     * @param traveller player whose turn is the current one
-     * @return drawn card
+     * starts recording the game to a file that Replay can play back: the seed and
+     * card files it was created with, a snapshot of it as it was created, which
+     * holds its cards, every operation on it, and a snapshot every few turns; the game must not have been played yet, and a game records or
+     * journals, not both, so startJournal ends a recording and this ends a journal
+     * @param path file to record to
+     * @param checkpointEvery nº of turns between snapshots
+     * @throws GameException when an error occurs in saving the data into the file
      */
-    public Card travel(Astronaut traveller) {
-        traveller.breathe();
-        traveller.breathe();
+    public void startRecording(String path, int checkpointEvery) throws GameException {
+        if (path == null || checkpointEvery < 1) throw new IllegalArgumentException();
+        if (this.gameDeckPath == null || this.hasStarted || !this.seats.isEmpty()
+                || this.random.getState() != this.createdState) throw new IllegalStateException();
 
-        Card trackCard = spaceDeck.draw();
-        if (trackCard.toString().equals(SpaceDeck.GRAVITATIONAL_ANOMALY)) {
-            spaceDiscard.add(trackCard);
+        stopJournal();
+        try {
+            this.journal = new Recording(path, this.seed, this.gameDeckPath, this.spaceDeckPath, this, checkpointEvery);
         }
-        else {
-            traveller.addToTrack(trackCard);
+
+        catch(IOException ex) {
+            throw new GameException("An error occured while handling the file", ex);
         }
-        return trackCard;
+    }
+
+    /**
+     * writes out the recording's index and closes it, if the game is recording
+     * @throws GameException when an error occurs in saving the data into the file
+     */
+    public void stopRecording() throws GameException {
+        stopJournal();
+    }
+
+    /**
+     * writes out and closes the journal, if the game is journaling
+     * @throws GameException when an error occurs in saving the data into the file
+     */
+    public void stopJournal() throws GameException {
+        if (this.journal == null) return;
+
+        try {
+            this.journal.close();
+        }
+
+        catch(IOException ex) {
+            throw new GameException("An error occured while handling the file", ex);
+        }
+
+        finally {
+            this.journal = null;
+            this.journalPath = null;
+        }
+    }
+
+    /**
+     * writes a new snapshot to the journal's path and starts an empty journal after it;
+     * the snapshot replaces the old one in a single rename, so a crash leaves either
+     * the old snapshot and its journal or the new snapshot
+     * @throws IOException when the files cannot be written
+     */
+    private void snapshot() throws IOException {
+        long next;
+        do {
+            next = ThreadLocalRandom.current().nextLong();
+        } while (next == 0);
+
+        File target = new File(this.journalPath);
+        File temp = new File(this.journalPath + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp)) {
+            writeSnapshot(new BufferedOutputStream(file), false, next);
+            file.getChannel().force(false);
+        }
+        Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+
+        if (this.journal != null) {
+            this.journal.close();
+        }
+        this.generation = next;
+        this.journal = new Journal(this.journalPath + JOURNAL_SUFFIX, next, this.journalSync);
+    }
+
+    /**
+     * writes the game in the binary format with no journal after it
+     * @param out stream to write to, left open
+     * @param compress whether to deflate everything after the header
+     * @throws IOException when the stream cannot be written
+     */
+    void writeSnapshot(OutputStream out, boolean compress) throws IOException {
+        writeSnapshot(out, compress, 0);
+    }
+
+    /**
+     * writes the game in the binary format: a header (magic number, version, flags,
+     * generation), then a table of the cards in play, then the randomizer, decks and
+     * players with every card written as its index in the table
+     * @param out stream to write to, left open
+     * @param compress whether to deflate everything after the header
+     * @param generation number a journal written after the snapshot is tagged with, 0 for none
+     * @throws IOException when the stream cannot be written
+     */
+    void writeSnapshot(OutputStream out, boolean compress, long generation) throws IOException {
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(SAVE_MAGIC);
+        header.writeShort(SAVE_VERSION);
+        header.writeByte(compress ? SAVE_DEFLATED : 0);
+        header.writeLong(generation);
+        header.flush();
+
+        DeflaterOutputStream deflater = null;
+        DataOutputStream data = header;
+        if (compress) {
+            deflater = new DeflaterOutputStream(out, new Deflater(Deflater.BEST_SPEED));
+            data = new DataOutputStream(new BufferedOutputStream(deflater));
+        }
+
+        Deck[] decks = {this.gameDeck, this.gameDiscard, this.spaceDeck, this.spaceDiscard};
+        Card[][] deckCards = new Card[decks.length][];
+        List<Astronaut> players = this.seats;
+        List<List<Card>> hands = new ArrayList<>();
+
+        //number every kind of card in play, in the order first seen
+        int[] index = new int[CardCatalog.size()];
+        List<Card> table = new ArrayList<>();
+        for (int d = 0; d < decks.length; d++) {
+            deckCards[d] = decks[d].getCards();
+            for (Card card : deckCards[d]) {
+                addToTable(card, index, table);
+            }
+        }
+        for (Astronaut player : players) {
+            hands.add(player.getHand());
+            for (Card card : hands.get(hands.size() - 1)) {
+                addToTable(card, index, table);
+            }
+            for (Card card : player.getTrack()) {
+                addToTable(card, index, table);
+            }
+        }
+
+        data.writeShort(table.size());
+        for (Card card : table) {
+            data.writeUTF(card.toString());
+            data.writeUTF(card.getDescription());
+        }
+
+        for (GameRandom stream : new GameRandom[] {this.random, this.stealRandom, this.botRandom}) {
+            data.writeLong(stream.getState());
+            data.writeLong(stream.getGamma());
+        }
+        data.writeBoolean(this.hasStarted);
+        for (Card[] cards : deckCards) {
+            data.writeInt(cards.length);
+            for (Card card : cards) {
+                writeCard(data, card, index, table.size());
+            }
+        }
+
+        data.writeByte(players.size());
+        for (int p = 0; p < players.size(); p++) {
+            Astronaut player = players.get(p);
+            List<Card> hand = hands.get(p);
+            data.writeUTF(player.getName());
+
+            //the hand is sorted, so write it as runs of the same card
+            int kinds = 0;
+            for (int i = 0; i < hand.size(); i++) {
+                if (i == 0 || !hand.get(i).equals(hand.get(i - 1))) kinds++;
+            }
+            data.writeShort(kinds);
+            for (int i = 0; i < hand.size(); ) {
+                int run = 1;
+                while (i + run < hand.size() && hand.get(i + run).equals(hand.get(i))) run++;
+                writeCard(data, hand.get(i), index, table.size());
+                data.writeShort(run);
+                i += run;
+            }
+
+            data.writeShort(player.getTrack().size());
+            for (Card card : player.getTrack()) {
+                writeCard(data, card, index, table.size());
+            }
+        }
+
+        data.writeByte(this.activePlayers.size());
+        for (Astronaut player : this.activePlayers) {
+            data.writeByte(players.indexOf(player));
+        }
+        data.writeByte(this.corpses.size());
+        for (Astronaut player : this.corpses) {
+            data.writeByte(players.indexOf(player));
+        }
+        data.writeByte(players.indexOf(this.currentPlayer));
+
+        data.flush();
+        if (deflater != null) {
+            deflater.finish();
+        }
+        out.flush();
+    }
+
+    /**
+     * gives a kind of card the next index in a save's card table, if it has none yet
+     * @param card card in play
+     * @param index index + 1 of every card id in the table, 0 if not in it
+     * @param table cards in the table, in index order
+     */
+    private static void addToTable(Card card, int[] index, List<Card> table) {
+        if (index[card.getId()] == 0) {
+            table.add(card);
+            index[card.getId()] = table.size();
+        }
+    }
+
+    /**
+     * writes a card as its index in the save's card table
+     * @param out stream to write to
+     * @param card card to write
+     * @param index index + 1 of every card id in the table
+     * @param tableSize nº of cards in the table
+     * @throws IOException when the stream cannot be written
+     */
+    private static void writeCard(DataOutputStream out, Card card, int[] index, int tableSize) throws IOException {
+        if (tableSize <= 256) {
+            out.writeByte(index[card.getId()] - 1);
+        }
+        else {
+            out.writeShort(index[card.getId()] - 1);
+        }
+    }
+
+    /**
+     * splits oxygen (2) into 2 oxygen(1)
+     * @param dbl oxygen(2) to be split
+     * @return array with 2 oxygen(1)
+     */
+    public Oxygen[] splitOxygen(Oxygen dbl) {
+        return dbl.getValue() == 2 ? splitOxygen(dbl, new Oxygen[2]) : null;
+    }
+
+    /**
+     * splits an oxygen(2) into an array the caller keeps, so splitting allocates nothing
+     * @param dbl oxygen(2) to split
+     * @param split array of at least 2 the split oxygen is put in
+     * @return the array given, with the split oxygen, or null if the oxygen was not an oxygen(2)
+     */
+    public Oxygen[] splitOxygen(Oxygen dbl, Oxygen[] split) {
+        if (dbl.getValue() != 2) return null;
+
+        boolean outer = journal(Journal.SPLIT_OXYGEN, null);
+        try {
+            if (gameDeck.oxygenCount(1) >= 2) {
+                return gameDeck.splitOxygen(dbl, split);
+            }
+            EngineMetrics.count(EngineMetrics.Counter.SPLIT_FALLBACKS);
+            if (gameDiscard.oxygenCount(1) >= 2) {
+                return gameDiscard.splitOxygen(dbl, split);
+            }
+            else {
+                split[0] = gameDeck.drawOxygen(1);
+                split[1] = gameDiscard.drawOxygen(1);
+                gameDiscard.add(dbl);
+                return split;
+            }
+        }
+
+        finally {
+            journaled(outer);
+        }
+    }
+
+    /**
+     * deals cards to each character and sets hasStarted: an Oxygen(2) and four
+     * Oxygen(1)s each first, then four cards each from the top of the deck, so
+     * the oxygens cannot be dealt out as action cards before everyone has theirs
+     * @throws IllegalStateException if the game deck holds too few oxygens to deal
+     */
+    public void startGame() {
+        if (this.hasStarted == true) throw new IllegalStateException();
+        if (activePlayers.size() < 2 || activePlayers.size() >5) throw new IllegalStateException();
+        if (gameDeck.oxygenCount(2) < activePlayers.size() || gameDeck.oxygenCount(1) < 4 * activePlayers.size()) {
+            throw new IllegalStateException("Not enough oxygen in the game deck to deal");
+        }
+        boolean outer = journal(Journal.START_GAME, null);
+        try {
+            for (Astronaut astronaut : activePlayers) {
+                recycle();
+                astronaut.addToHand(gameDeck.drawOxygen(2));
+                for (int i = 0; i < 4; i++) {
+                    recycle();
+                    astronaut.addToHand(gameDeck.drawOxygen(1));
+                }
+            }
+
+            for (int i = 0; i < 4; i++) {
+                for (Astronaut astronaut : activePlayers) {
+                    recycle();
+                    astronaut.addToHand(gameDeck.draw());
+                }
+            }
+            hasStarted = true;
+        }
+
+        finally {
+            journaled(outer);
+        }
+    }
+
+    /**
+     * updates currentPlayer and activePlayers
+     */
+    public void startTurn() {
+        if (!hasStarted || this.currentPlayer != null || gameOver() == true) throw new IllegalStateException();
+        if (this.journal != null) {
+            this.journal.append(Journal.START_TURN);
+        }
+
+        this.currentPlayer = this.activePlayers.pollFirst();
+        EngineMetrics.count(EngineMetrics.Counter.TURNS);
+        this.turnStarted = EngineMetrics.start();
+        if (TurnEvent.wanted()) {
+            this.turnEvent = TurnEvent.start(this.currentPlayer.getName(), this.seats.indexOf(this.currentPlayer));
+        }
+    }
+
+    /**
+     * reduces player's oxygen by 2, draws a card, adds card to player's track
+     * (unless the card is Gravitational anomaly) and resolves its effect, drawing
+     * again for as long as the effects move the player on; returns the first drawn card
+     * @param traveller player whose turn is the current one
+     * @return drawn card
+     */
+    public Card travel(Astronaut traveller) {
+        boolean outer = journal(Journal.TRAVEL, traveller);
+        EngineMetrics.count(EngineMetrics.Counter.TRAVELS);
+        SimulationStats.Death dyingOf = this.dyingOf;
+        try {
+            this.dyingOf = SimulationStats.Death.TRAVELLING;
+            traveller.breathe();
+            traveller.breathe();
+            return move(traveller);
+        }
+
+        finally {
+            this.dyingOf = dyingOf;
+            journaled(outer);
+        }
+    }
+
+    /**
+     * moves a player forward without breathing: draws a space card, places it
+     * and resolves it, drawing again for as long as the effects move the player on
+     * @param traveller player moving
+     * @return first drawn card
+     */
+    private Card move(Astronaut traveller) {
+        SimulationStats.Death dyingOf = this.dyingOf;
+        try {
+            this.dyingOf = SimulationStats.Death.TRAVELLING;
+            Card firstCard = spaceDeck.draw();
+            Card trackCard = firstCard;
+            while (true) {
+                int id = trackCard.getId();
+                if (this.stats != null) {
+                    this.stats.spaceCard(id);
+                }
+                if (id == SpaceDeck.GRAVITATIONAL_ANOMALY_ID) {
+                    spaceDiscard.add(trackCard);
+                }
+                else {
+                    traveller.addToTrack(trackCard);
+                }
+
+                SpaceEffect effect = id < SPACE_EFFECTS.length ? SPACE_EFFECTS[id] : null;
+                boolean moveOn = effect != null && effect.resolve(this, traveller);
+                if (!moveOn || !traveller.isAlive() || traveller.distanceFromShip() <= 0) break;
+
+                if (spaceDeck.size() == 0) {
+                    mergeDecks(spaceDeck, spaceDiscard);
+                }
+                if (spaceDeck.size() == 0) break;
+                trackCard = spaceDeck.draw();
+            }
+            return firstCard;
+        }
+
+        finally {
+            this.dyingOf = dyingOf;
+        }
+    }
+
+    /**
+     * space card effect: the traveller picks up action cards, reshuffling the
+     * discard pile into the game deck if it runs out
+     * @param traveller player who drew the space card
+     * @param cards nº of action cards to pick up
+     * @return false, the traveller stays put
+     */
+    private boolean drawActions(Astronaut traveller, int cards) {
+        for (int i = 0; i < cards; i++) {
+            recycle();
+            if (this.gameDeck.size() == 0) break;
+            traveller.addToHand(this.gameDeck.draw());
+        }
+        return false;
+    }
+
+    /**
+     * space card effect: the traveller breathes out oxygen to get through
+     * @param traveller player who drew the space card
+     * @param breaths nº of oxygen to discard
+     * @return false, the traveller stays put
+     */
+    private boolean loseOxygen(Astronaut traveller, int breaths) {
+        for (int i = 0; i < breaths && traveller.isAlive(); i++) {
+            traveller.breathe();
+        }
+        return false;
+    }
+
+    /**
+     * space card effect: a traveller holding 6 or more cards discards 2,
+     * actions before oxygen and oxygen(1) before oxygen(2)
+     * @param game game being played
+     * @param traveller player who drew the space card
+     * @return false, the traveller stays put
+     */
+    private static boolean meteoroid(GameEngine game, Astronaut traveller) {
+        if (traveller.handSize() < 6) return false;
+
+        for (int i = 0; i < 2 && traveller.isAlive(); i++) {
+            List<Card> actions = traveller.getActions();
+            Card card = !actions.isEmpty() ? actions.get(0)
+                : CardCatalog.card(traveller.hasCard(GameDeck.OXYGEN_1) > 0 ? GameDeck.OXYGEN_1_ID : GameDeck.OXYGEN_2_ID);
+            traveller.hack(card);
+            game.gameDiscard.add(card);
+        }
+        return false;
+    }
+
+    /**
+     * space card effect: the traveller swaps places with the living player
+     * furthest along, if that player is ahead of them
+     * @param game game being played
+     * @param traveller player who drew the space card
+     * @return false, the traveller stays put
+     */
+    private static boolean wormhole(GameEngine game, Astronaut traveller) {
+        Astronaut furthest = null;
+        for (Astronaut player : game.seats) {
+            if (player != traveller && player.isAlive()
+                    && (furthest == null || player.distanceFromShip() < furthest.distanceFromShip())) {
+                furthest = player;
+            }
+        }
+        if (furthest != null && furthest.distanceFromShip() < traveller.distanceFromShip()) {
+            traveller.swapTrack(furthest);
+        }
+        return false;
+    }
+
+    /**
+     * tells whether a player can play an action card now: it must be their turn, they
+     * must hold the card and have no solar flare behind them, and the target must be a
+     * living rival, one who is off the starting space for a laser blast or tether; a
+     * rocket booster is played on no one, and a shield only in answer to an action
+     * @param actor player playing the card
+     * @param card action card played
+     * @param target player the card is played on, or null for a rocket booster
+     * @return boolean value
+     */
+    public boolean canPlay(Astronaut actor, Card card, Astronaut target) {
+        if (actor == null || card == null || actor != this.currentPlayer || !actor.isAlive()) return false;
+
+        int id = card.getId();
+        if (id >= ACTION_EFFECTS.length || ACTION_EFFECTS[id] == null) return false;
+        if (actor.count(id) == 0 || actor.hasMeltedEyeballs()) return false;
+
+        if (id == GameDeck.ROCKET_BOOSTER_ID) {
+            return target == null && canMove(actor);
+        }
+        if (target == null || target == actor || !target.isAlive() || !this.seats.contains(target)) return false;
+
+        switch (id) {
+            case GameDeck.LASER_BLAST_ID: return target.distanceFromShip() < 6;
+            case GameDeck.TETHER_ID: return target.distanceFromShip() < 6 && canMove(actor);
+            default: return true;
+        }
+    }
+
+    /**
+     * plays an action card, letting a hack suit take the target's most valuable card
+     * @param actor player playing the card
+     * @param card action card played
+     * @param target player the card is played on, or null for a rocket booster
+     * @return false if the target blocked the card with a shield
+     */
+    public boolean playAction(Astronaut actor, Card card, Astronaut target) {
+        return playAction(actor, card, target, null);
+    }
+
+    /**
+     * plays an action card: the card leaves the actor's hand, the target blocks it
+     * with a shield if they hold one and have no solar flare behind them, otherwise
+     * the card's effect is applied, and the cards played are discarded
+     * @param actor player playing the card
+     * @param card action card played
+     * @param target player the card is played on, or null for a rocket booster
+     * @param choice card a hack suit takes from the target, or null for their most valuable
+     * @return false if the target blocked the card with a shield
+     */
+    public boolean playAction(Astronaut actor, Card card, Astronaut target, Card choice) {
+        if (!canPlay(actor, card, target)) throw new IllegalArgumentException();
+
+        int id = card.getId();
+        if (id == GameDeck.HACK_SUIT_ID) {
+            if (choice == null) {
+                choice = target.pickCard();
+            }
+            else if (target.count(choice.getId()) == 0) {
+                throw new IllegalArgumentException();
+            }
+        }
+        else {
+            choice = null;
+        }
+
+        boolean outer = journalPlay(actor, card, target, choice);
+        try {
+            actor.hack(card);
+            if (target != null && !target.hasMeltedEyeballs() && target.count(GameDeck.SHIELD_ID) > 0) {
+                Card shield = CardCatalog.card(GameDeck.SHIELD_ID);
+                target.hack(shield);
+                this.gameDiscard.add(card);
+                this.gameDiscard.add(shield);
+                return false;
+            }
+
+            ACTION_EFFECTS[id].resolve(this, actor, target, choice);
+            this.gameDiscard.add(card);
+            return true;
+        }
+
+        finally {
+            journaled(outer);
+        }
+    }
+
+    /**
+     * tells whether a player can be moved forward without travelling
+     * @param player player to move
+     * @return boolean value
+     */
+    private boolean canMove(Astronaut player) {
+        return player.distanceFromShip() > 0 && this.spaceDeck.size() + this.spaceDiscard.size() > 0;
+    }
+
+    /**
+     * moves a player forward without breathing, reshuffling the space discard
+     * pile into the space deck if it has run out
+     * @param player player to move
+     */
+    private void boost(Astronaut player) {
+        if (this.spaceDeck.size() == 0) {
+            mergeDecks(this.spaceDeck, this.spaceDiscard);
+        }
+        move(player);
+    }
+
+    /**
+     * action effect: the actor takes the card they chose from the target's hand
+     * @param actor player who played the hack suit
+     * @param target player hacked
+     * @param choice card taken
+     */
+    private void take(Astronaut actor, Astronaut target, Card choice) {
+        target.hack(choice);
+        actor.addToHand(choice);
+    }
+
+    /**
+     * action effect: the actor siphons 2 oxygen, or as much as the target has left
+     * @param game game being played
+     * @param actor player who played the oxygen siphon
+     * @param target player siphoned
+     * @param choice unused
+     */
+    private static void oxygenSiphon(GameEngine game, Astronaut actor, Astronaut target, Card choice) {
+        for (int i = 0; i < 2 && target.isAlive(); i++) {
+            actor.addToHand(target.siphon());
+        }
+    }
+
+    /**
+     * action effect: the target loses 1 oxygen
+     * @param game game being played
+     * @param actor player who played the hole in suit
+     * @param target player whose suit is holed
+     * @param choice unused
+     */
+    private static void holeInSuit(GameEngine game, Astronaut actor, Astronaut target, Card choice) {
+        SimulationStats.Death dyingOf = game.dyingOf;
+        try {
+            game.dyingOf = SimulationStats.Death.HOLE_IN_SUIT;
+            target.breathe();
+        }
+
+        finally {
+            game.dyingOf = dyingOf;
+        }
+    }
+
+    /**
+     * action effect: the target is knocked back a space and the actor moves forward one
+     * @param game game being played
+     * @param actor player who played the tether
+     * @param target player knocked back
+     * @param choice unused
+     */
+    private static void tether(GameEngine game, Astronaut actor, Astronaut target, Card choice) {
+        game.spaceDiscard.add(target.laserBlast());
+        game.boost(actor);
+    }
+
+    /**
+     * draws the top action card into a player's hand, reshuffling the discard
+     * pile into the game deck first if the deck has run out
+     * @param player player drawing
+     * @return drawn card
+     */
+    public Card drawCard(Astronaut player) {
+        boolean outer = journal(Journal.DRAW, player);
+        try {
+            recycle();
+            Card card = this.gameDeck.draw();
+            player.addToHand(card);
+            return card;
+        }
+
+        finally {
+            journaled(outer);
+        }
+    }
+
+    /**
+     * reshuffles the discard pile into the game deck if the deck is empty and the pile is not
+     */
+    private void recycle() {
+        if (this.gameDeck.size() == 0 && this.gameDiscard.size() > 0) {
+            mergeDecks(this.gameDeck, this.gameDiscard);
+        }
+    }
+
+    /**
+     * appends an operation on a player to the journal, unless the game is not
+     * journaling or the operation is part of one already journaled
+     * @param op operation code
+     * @param player player the operation is on, or null for none
+     * @return whether the operation was journaled, to be passed to journaled
+     */
+    boolean journal(int op, Astronaut player) {
+        if (this.journal == null || this.journaling) return false;
+
+        if (player == null) {
+            this.journal.append(op);
+        }
+        else {
+            this.journal.append(op, this.seats.indexOf(player));
+        }
+        return this.journaling = true;
+    }
+
+    /**
+     * appends an operation on a player and a card to the journal
+     * @param op operation code
+     * @param player player the operation is on
+     * @param card card the operation is on
+     * @return whether the operation was journaled, to be passed to journaled
+     */
+    boolean journal(int op, Astronaut player, Card card) {
+        if (this.journal == null || this.journaling) return false;
+
+        this.journal.append(op, this.seats.indexOf(player), card);
+        return this.journaling = true;
+    }
+
+    /**
+     * appends an operation between two players to the journal
+     * @param op operation code
+     * @param player player the operation is on
+     * @param other other player the operation is on
+     * @return whether the operation was journaled, to be passed to journaled
+     */
+    boolean journal(int op, Astronaut player, Astronaut other) {
+        if (this.journal == null || this.journaling) return false;
+
+        this.journal.append(op, this.seats.indexOf(player), this.seats.indexOf(other));
+        return this.journaling = true;
+    }
+
+    /**
+     * appends an action card played to the journal
+     * @param actor player playing the card
+     * @param card card played
+     * @param target player it is played on, or null for none
+     * @param choice card a hack suit takes, or null for other cards
+     * @return whether the play was journaled, to be passed to journaled
+     */
+    private boolean journalPlay(Astronaut actor, Card card, Astronaut target, Card choice) {
+        if (this.journal == null || this.journaling) return false;
+
+        this.journal.appendPlay(this.seats.indexOf(actor), card, target == null ? -1 : this.seats.indexOf(target), choice);
+        return this.journaling = true;
+    }
+
+    /**
+     * ends a journaled operation
+     * @param outer what journal returned when the operation began
+     */
+    void journaled(boolean outer) {
+        if (outer) {
+            this.journaling = false;
+        }
+    }
+
+    /**
+     * counts the game's travels, deaths and winner in a set of statistics from now on
+     * @param stats statistics to count them in, or null to stop counting
+     */
+    public void setStats(SimulationStats stats) {
+        this.stats = stats;
+    }
+
+    /**
+     * keeps count of the players who have won, as their tracks and oxygen change,
+     * and which of them getWinner gives: the first in turn order, as the players
+     * alive come before the dead and the one whose turn it is comes last
+     * @param player player whose standing changed
+     * @param change 1 when a player starts having won, -1 when they stop
+     */
+    void winnersChanged(Astronaut player, int change) {
+        this.winners += change;
+        if (change > 0 && this.winners == 1 && this.seats != null) {
+            this.winner = player;
+            this.winnerSeat = this.seats.indexOf(player);
+        }
+        else if (change > 0 || player == this.winner) {
+            findWinner();
+        }
+    }
+
+    /**
+     * looks for the player getWinner gives among all the players, for when more
+     * than one has won or the winner has stopped having won; a game being loaded
+     * has no players in their seats yet, and looks once they are
+     */
+    private void findWinner() {
+        this.winner = null;
+        this.winnerSeat = -1;
+        if (this.winners == 0 || this.seats == null || this.activePlayers == null || this.corpses == null) return;
+
+        for (Astronaut player : getAllPlayers()) {
+            if (player.hasWon()) {
+                this.winner = player;
+                this.winnerSeat = this.seats.indexOf(player);
+                return;
+            }
+        }
+    }
+
+    /**
+     * gives the player in a seat
+     * @param seat seat, in the order players joined
+     * @return player in the seat
+     */
+    Astronaut getSeat(int seat) {
+        return this.seats.get(seat);
+    }
+
+    /**
+     * gives one of the game's decks by the code the journal writes for it
+     * @param code 0 to 3 for the game deck, game discard, space deck and space discard
+     * @return deck, or null if the code is for none of them
+     */
+    Deck getDeck(int code) {
+        switch (code) {
+            case 0: return this.gameDeck;
+            case 1: return this.gameDiscard;
+            case 2: return this.spaceDeck;
+            case 3: return this.spaceDiscard;
+            default: return null;
+        }
+    }
+
+    /**
+     * gives the code the journal writes for a deck
+     * @param deck deck
+     * @return 0 to 3 for the game's decks, -1 for any other
+     */
+    private int deckCode(Deck deck) {
+        for (int code = 0; code < 4; code++) {
+            if (getDeck(code) == deck) return code;
+        }
+        return -1;
+    }
+
+    /**
+     * gives the game's randomizer for shuffling
+     * @return randomizer
+     */
+    GameRandom getRandom() {
+        return this.random;
+    }
+
+    /**
+     * gives the game's randomizer for choosing stolen cards
+     * @return randomizer
+     */
+    GameRandom getStealRandom() {
+        return this.stealRandom;
+    }
+
+    /**
+     * gives a randomizer for the players the computer plays, split off from the
+     * game's seed and apart from the shuffles, so bots can draw from it without
+     * changing how the decks come out; it is saved with the game
+     * @return randomizer
+     */
+    public GameRandom getBotRandom() {
+        return this.botRandom;
     }
 }
@@ -0,0 +1,514 @@
+package selfish;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+
+import selfish.deck.CardCatalog;
+import selfish.deck.GameDeck;
+import selfish.deck.SpaceDeck;
+
+/**
+ * a set of games for training a bot, one step per decision: the bot sits in the
+ * first seat, every other seat plays Simulation's turn, and each step the bot
+ * either plays an action card, staying on turn, or ends its turn resting or
+ * travelling. After every step each game's observation is written as a fixed
+ * row of floats into one buffer the caller keeps, next to its reward and whether
+ * it is done, so stepping makes no strings or objects of its own; a game is only made
+ * anew when it is reset
+ * @author sofia hu
+ * @version 1.0
+ */
+public class GameEnv {
+
+    /**
+     * most players a game can seat
+     */
+    public final static int MAX_PLAYERS = 5;
+
+    /**
+     * action: breathe once and end the turn
+     */
+    public final static int REST = 0;
+
+    /**
+     * action: travel and end the turn; legal, as in Simulation, only while the bot
+     * can spare the 2 oxygen travelling takes and there are space cards to draw
+     */
+    public final static int TRAVEL = 1;
+
+    /**
+     * first action that plays a card: PLAY + id * MAX_PLAYERS + seat plays the
+     * action card of that id on the player in that seat; a rocket booster is
+     * played on no one, whatever the seat
+     */
+    public final static int PLAY = 2;
+
+    /**
+     * nº of game card ids, from hack suit to tractor beam
+     */
+    public final static int GAME_KINDS = GameDeck.TRACTOR_BEAM_ID + 1;
+
+    /**
+     * nº of space card ids, from asteroid field to wormhole
+     */
+    public final static int SPACE_KINDS = SpaceDeck.WORMHOLE_ID - SpaceDeck.ASTEROID_FIELD_ID + 1;
+
+    /**
+     * nº of actions
+     */
+    public final static int ACTIONS = PLAY + GAME_KINDS * MAX_PLAYERS;
+
+    /**
+     * observation: nº of each game card id in the bot's hand
+     */
+    public final static int HAND = 0;
+
+    /**
+     * observation: a block per seat, in seat order, the bot's first: alive (0 or 1),
+     * oxygen, distance from the ship, nº of cards in hand, then the nº of each space
+     * card id on the track; seats no one sits in are all 0
+     */
+    public final static int SEATS = HAND + GAME_KINDS;
+
+    /**
+     * nº of floats in a seat's block
+     */
+    public final static int SEAT_SIZE = 4 + SPACE_KINDS;
+
+    /**
+     * observation: nº of each game card id in the discard pile
+     */
+    public final static int DISCARD = SEATS + MAX_PLAYERS * SEAT_SIZE;
+
+    /**
+     * observation: nº of cards in the game deck, the space deck and the space
+     * discard pile, then the nº of turns played
+     */
+    public final static int DECKS = DISCARD + GAME_KINDS;
+
+    /**
+     * nº of floats in an observation
+     */
+    public final static int OBSERVATION_SIZE = DECKS + 4;
+
+    /**
+     * path to the action cards
+     */
+    private final String gameDeckPath;
+
+    /**
+     * path to the space cards
+     */
+    private final String spaceDeckPath;
+
+    /**
+     * nº of players in every game
+     */
+    private final int players;
+
+    /**
+     * games being played
+     */
+    private final GameEngine[] games;
+
+    /**
+     * seed each game was last reset with
+     */
+    private final long[] seeds;
+
+    /**
+     * game with the decks in file order, that games are reset from once they have been made
+     */
+    private GameEngine template;
+
+    /**
+     * nº of turns each game has played
+     */
+    private final int[] turns;
+
+    /**
+     * reward of each game's last step: 1 if the bot won, -1 if it died or someone
+     * else won, otherwise 0
+     */
+    private final float[] rewards;
+
+    /**
+     * whether each game's last step ended it
+     */
+    private final boolean[] done;
+
+    /**
+     * whether each game being played has ended
+     */
+    private final boolean[] ended;
+
+    /**
+     * observation of every game, a row of OBSERVATION_SIZE floats each
+     */
+    private final FloatBuffer observations;
+
+    /**
+     * nº of cards of each id, reused for every count
+     */
+    private final int[] counts = new int[SpaceDeck.WORMHOLE_ID + 1];
+
+    /**
+     * nº of games the engine could not play to the end
+     */
+    private long failed;
+
+    /**
+     * creates a set of games, not yet reset
+     * @param gameDeckPath path to the action cards
+     * @param spaceDeckPath path to the space cards
+     * @param envs nº of games
+     * @param players nº of players in each game, between 2 and 5
+     */
+    public GameEnv(String gameDeckPath, String spaceDeckPath, int envs, int players) {
+        if (envs < 1 || players < 2 || players > MAX_PLAYERS) throw new IllegalArgumentException();
+        this.gameDeckPath = gameDeckPath;
+        this.spaceDeckPath = spaceDeckPath;
+        this.players = players;
+        this.games = new GameEngine[envs];
+        this.seeds = new long[envs];
+        this.turns = new int[envs];
+        this.rewards = new float[envs];
+        this.done = new boolean[envs];
+        this.ended = new boolean[envs];
+        this.observations = ByteBuffer.allocateDirect(envs * OBSERVATION_SIZE * Float.BYTES)
+            .order(ByteOrder.nativeOrder()).asFloatBuffer();
+    }
+
+    /**
+     * resets every game, game e with seed firstSeed + e, and plays the other seats
+     * up to the bot's first turn
+     * @param firstSeed seed of the first game
+     * @throws GameException when the card files cannot be read
+     */
+    public void reset(long firstSeed) throws GameException {
+        for (int env = 0; env < this.games.length; env++) {
+            reset(env, firstSeed + env);
+        }
+    }
+
+    /**
+     * resets one game with a seed and plays the other seats up to the bot's first
+     * turn; if the engine cannot play that far, the game is done at once
+     * @param env game
+     * @param seed seed for the game
+     * @throws GameException when the card files cannot be read
+     */
+    public void reset(int env, long seed) throws GameException {
+        start(env, seed);
+        this.rewards[env] = 0;
+        this.done[env] = this.ended[env];
+        observe(env);
+    }
+
+    /**
+     * takes a step in the first game
+     * @param action action, from REST to ACTIONS - 1
+     * @return reward of the step
+     */
+    public float step(int action) {
+        return step(0, action);
+    }
+
+    /**
+     * takes a step in one game and writes its observation; an action that is not
+     * legal now rests instead. The game is left as it ended once done, until reset
+     * @param env game
+     * @param action action, from REST to ACTIONS - 1
+     * @return reward of the step
+     */
+    public float step(int env, int action) {
+        if (action < 0 || action >= ACTIONS) throw new IllegalArgumentException();
+        if (this.games[env] == null || this.ended[env]) throw new IllegalStateException();
+
+        act(env, action);
+        observe(env);
+        return this.rewards[env];
+    }
+
+    /**
+     * takes a step in every game, with an action each; a game that ends is reset
+     * at once with its seed plus the nº of games, so its observation is the new
+     * game's first, while its reward and done flag tell of the game that ended. A
+     * game that had already ended, through step or a reset the engine could not
+     * play, is reset the same way instead of stepped
+     * @param actions action for each game
+     * @throws GameException when the card files cannot be read
+     */
+    public void stepAll(int[] actions) throws GameException {
+        if (actions.length != this.games.length) throw new IllegalArgumentException();
+
+        for (int env = 0; env < this.games.length; env++) {
+            int action = actions[env];
+            if (action < 0 || action >= ACTIONS) throw new IllegalArgumentException();
+            if (this.games[env] == null) throw new IllegalStateException();
+
+            if (this.ended[env]) {
+                this.rewards[env] = 0;
+                this.done[env] = false;
+            }
+            else {
+                act(env, action);
+            }
+            while (this.ended[env]) {
+                start(env, this.seeds[env] + this.games.length);
+            }
+            observe(env);
+        }
+    }
+
+    /**
+     * tells whether an action is legal in a game now
+     * @param env game
+     * @param action action, from REST to ACTIONS - 1
+     * @return boolean value
+     */
+    public boolean isLegal(int env, int action) {
+        if (action == REST) return true;
+        if (action == TRAVEL) return canTravel(this.games[env]);
+
+        int id = (action - PLAY) / MAX_PLAYERS;
+        int seat = (action - PLAY) % MAX_PLAYERS;
+        if (seat >= this.players) return false;
+
+        GameEngine game = this.games[env];
+        Astronaut target = id == GameDeck.ROCKET_BOOSTER_ID ? null : game.getSeat(seat);
+        return game.canPlay(game.getSeat(0), CardCatalog.card(id), target);
+    }
+
+    /**
+     * tells whether the bot can travel now
+     * @param game game
+     * @return boolean value
+     */
+    private static boolean canTravel(GameEngine game) {
+        return game.getSeat(0).oxygenRemaining() > 2 && game.getSpaceDeck().size() > 0;
+    }
+
+    /**
+     * starts a game with a seed and plays the other seats up to the bot's first
+     * turn; the game is only made the first time, and after that reset in place
+     * from the template, so starting an episode allocates next to nothing
+     * @param env game
+     * @param seed seed for the game
+     * @throws GameException when the card files cannot be read
+     */
+    private void start(int env, long seed) throws GameException {
+        GameEngine game = this.games[env];
+        if (game == null) {
+            game = new GameEngine(seed, this.gameDeckPath, this.spaceDeckPath);
+            for (int i = 0; i < this.players; i++) {
+                game.addPlayer("Player " + (i + 1));
+            }
+            this.games[env] = game;
+        }
+        else {
+            if (this.template == null) {
+                this.template = GameEngine.template(this.gameDeckPath, this.spaceDeckPath);
+            }
+            game.reset(seed, this.template);
+        }
+        this.seeds[env] = seed;
+        this.turns[env] = 0;
+        this.ended[env] = false;
+
+        try {
+            game.startGame();
+            advance(env);
+        }
+
+        catch (IllegalStateException ex) {
+            //the engine reached a state its rules cannot resolve; the game ends with nothing won
+            this.failed++;
+            this.ended[env] = true;
+        }
+    }
+
+    /**
+     * plays the bot's action and, if it ends the bot's turn, the other seats up to
+     * its next one, setting the step's reward and done flag
+     * @param env game
+     * @param action action
+     */
+    private void act(int env, int action) {
+        GameEngine game = this.games[env];
+        Astronaut bot = game.getSeat(0);
+        float reward = 0;
+
+        try {
+            if (!bot.isAlive()) {
+                //the bot died on its own turn in an earlier step, so it has nothing left to play
+                reward = finish(env);
+            }
+
+            else if (action >= PLAY && isLegal(env, action)) {
+                int id = (action - PLAY) / MAX_PLAYERS;
+                Astronaut target = id == GameDeck.ROCKET_BOOSTER_ID ? null : game.getSeat((action - PLAY) % MAX_PLAYERS);
+                game.playAction(bot, CardCatalog.card(id), target);
+                //a booster or tether can move the bot onto a space card that kills it
+                if (game.gameOver() || !bot.isAlive()) {
+                    reward = finish(env);
+                }
+            }
+
+            else {
+                if (action == TRAVEL && canTravel(game)) {
+                    game.travel(bot);
+                }
+                else {
+                    bot.breathe();
+                }
+                game.endTurn();
+                this.turns[env]++;
+                reward = advance(env);
+            }
+        }
+
+        catch (IllegalStateException ex) {
+            //the engine reached a state its rules cannot resolve; the game ends with nothing won
+            this.failed++;
+            this.ended[env] = true;
+        }
+
+        this.rewards[env] = reward;
+        this.done[env] = this.ended[env];
+    }
+
+    /**
+     * plays the other seats' turns until the bot's turn starts or the game ends
+     * @param env game
+     * @return bot's reward if the game ended, otherwise 0
+     */
+    private float advance(int env) {
+        GameEngine game = this.games[env];
+        Astronaut bot = game.getSeat(0);
+        while (!game.gameOver() && bot.isAlive() && this.turns[env] < Simulation.MAX_TURNS) {
+            game.startTurn();
+            Astronaut player = game.getCurrentPlayer();
+            if (player == bot) {
+                Simulation.openTurn(game, bot);
+                return 0;
+            }
+            Simulation.takeTurn(game, player);
+            game.endTurn();
+            this.turns[env]++;
+        }
+        return finish(env);
+    }
+
+    /**
+     * marks a game ended
+     * @param env game
+     * @return bot's reward: 1 if it won, -1 if it died or someone else won, otherwise 0
+     */
+    private float finish(int env) {
+        GameEngine game = this.games[env];
+        Astronaut bot = game.getSeat(0);
+        Astronaut winner = game.getWinner();
+        this.ended[env] = true;
+        return winner == bot ? 1 : winner != null || !bot.isAlive() ? -1 : 0;
+    }
+
+    /**
+     * writes a game's observation into its row of the buffer
+     * @param env game
+     */
+    private void observe(int env) {
+        GameEngine game = this.games[env];
+        FloatBuffer out = this.observations;
+        int row = env * OBSERVATION_SIZE;
+        Astronaut bot = game.getSeat(0);
+
+        for (int id = 0; id < GAME_KINDS; id++) {
+            out.put(row + HAND + id, bot.count(id));
+        }
+
+        for (int seat = 0; seat < MAX_PLAYERS; seat++) {
+            int at = row + SEATS + seat * SEAT_SIZE;
+            if (seat >= this.players) {
+                for (int i = 0; i < SEAT_SIZE; i++) {
+                    out.put(at + i, 0);
+                }
+                continue;
+            }
+
+            Astronaut player = game.getSeat(seat);
+            out.put(at, player.isAlive() ? 1 : 0);
+            out.put(at + 1, player.oxygenRemaining());
+            out.put(at + 2, player.distanceFromShip());
+            out.put(at + 3, player.handSize());
+            Arrays.fill(this.counts, 0);
+            player.tallyTrack(this.counts);
+            for (int i = 0; i < SPACE_KINDS; i++) {
+                out.put(at + 4 + i, this.counts[SpaceDeck.ASTEROID_FIELD_ID + i]);
+            }
+        }
+
+        Arrays.fill(this.counts, 0);
+        game.getGameDiscard().tally(this.counts);
+        for (int id = 0; id < GAME_KINDS; id++) {
+            out.put(row + DISCARD + id, this.counts[id]);
+        }
+
+        out.put(row + DECKS, game.getGameDeck().size());
+        out.put(row + DECKS + 1, game.getSpaceDeck().size());
+        out.put(row + DECKS + 2, game.getSpaceDiscard().size());
+        out.put(row + DECKS + 3, this.turns[env]);
+    }
+
+    /**
+     * gives the buffer every game's observation is written to, game e's in the
+     * OBSERVATION_SIZE floats from e * OBSERVATION_SIZE; the same buffer is
+     * rewritten by every step, and its position is never moved
+     * @return observations
+     */
+    public FloatBuffer getObservations() {
+        return this.observations;
+    }
+
+    /**
+     * gives every game's reward for its last step; the same array is rewritten by every step
+     * @return rewards
+     */
+    public float[] getRewards() {
+        return this.rewards;
+    }
+
+    /**
+     * gives whether every game's last step ended it; the same array is rewritten by every step
+     * @return done flags
+     */
+    public boolean[] getDone() {
+        return this.done;
+    }
+
+    /**
+     * gives the game being played, to look at beyond its observation
+     * @param env game
+     * @return game
+     */
+    public GameEngine getGame(int env) {
+        return this.games[env];
+    }
+
+    /**
+     * gives the nº of games
+     * @return nº of games
+     */
+    public int getEnvs() {
+        return this.games.length;
+    }
+
+    /**
+     * gives the nº of games the engine could not play to the end
+     * @return nº of games
+     */
+    public long getFailed() {
+        return this.failed;
+    }
+}
@@ -0,0 +1,533 @@
+package selfish;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import selfish.deck.Card;
+import selfish.deck.Deck;
+import selfish.deck.GameDeck;
+import selfish.deck.Oxygen;
+import selfish.deck.SpaceDeck;
+
+/**
+ * lets many threads play one game safely: their commands go into a lock-free
+ * queue and are applied to the game one at a time, in the order they were
+ * queued, by whichever executor thread is draining it. The queue has a method
+ * for each of GameEngine's public methods, queries included, so a game with a
+ * queue is only ever touched through it; GameEngine itself stays unsynchronised
+ * for the callers that play a game on one thread.
+ * <p>
+ * Results that are values, counts, cards, copies and the list getAllPlayers
+ * builds are safe to use on any thread. Players, decks and the bot randomizer
+ * are the game's own objects: they are safe to hand back to queued commands,
+ * such as playAction's target or mergeDecks' decks, but reading or changing them
+ * outside a command races the game, so anything else on them goes through
+ * submit, or through a copy of the game
+ * @author sofia hu
+ * @version 1.0
+ */
+public class GameQueue {
+
+    /**
+     * nº of commands applied before the drain gives its thread back to the executor
+     */
+    private final static int BATCH = 64;
+
+    /**
+     * game the commands are applied to
+     */
+    private final GameEngine game;
+
+    /**
+     * executor the queue is drained on
+     */
+    private final Executor executor;
+
+    /**
+     * last command queued; producers swap themselves in here
+     */
+    private final AtomicReference<Node<?>> tail;
+
+    /**
+     * node before the next command to apply; only the draining thread touches it
+     */
+    private Node<?> head;
+
+    /**
+     * shows that a drain is scheduled or running
+     */
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    /**
+     * drains the queue, made once
+     */
+    private final Runnable drain = this::drain;
+
+    /**
+     * creates a queue for a game, drained on the common fork/join pool
+     * @param game game the commands are applied to
+     */
+    public GameQueue(GameEngine game) {
+        this(game, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * creates a queue for a game
+     * @param game game the commands are applied to
+     * @param executor executor the queue is drained on, which many queues can share
+     */
+    public GameQueue(GameEngine game, Executor executor) {
+        this.game = game;
+        this.executor = executor;
+        this.head = new Node<>(null);
+        this.tail = new AtomicReference<>(this.head);
+    }
+
+    /**
+     * queues a command on the game
+     * @param <T> type of the command's result
+     * @param command command, given the game once it is its turn
+     * @return future completed with the command's result, or with what it threw
+     */
+    public <T> CompletableFuture<T> submit(Function<GameEngine, T> command) {
+        Node<T> node = new Node<>(command);
+        Node<?> previous = this.tail.getAndSet(node);
+        previous.next = node;
+
+        if (this.draining.compareAndSet(false, true)) {
+            this.executor.execute(this.drain);
+        }
+        return node.result;
+    }
+
+    /**
+     * queues addPlayer
+     * @param player name of the astronaut joining the game
+     * @return future nº of total astronauts
+     */
+    public CompletableFuture<Integer> addPlayer(String player) {
+        return submit(game -> game.addPlayer(player));
+    }
+
+    /**
+     * queues startGame
+     * @return future completed once the game has started
+     */
+    public CompletableFuture<Void> startGame() {
+        return submit(game -> {
+            game.startGame();
+            return null;
+        });
+    }
+
+    /**
+     * queues startTurn
+     * @return future player whose turn it is
+     */
+    public CompletableFuture<Astronaut> startTurn() {
+        return submit(game -> {
+            game.startTurn();
+            return game.getCurrentPlayer();
+        });
+    }
+
+    /**
+     * queues drawCard for the current player
+     * @return future drawn card
+     */
+    public CompletableFuture<Card> drawCard() {
+        return submit(game -> game.drawCard(current(game)));
+    }
+
+    /**
+     * queues travel for the current player
+     * @return future drawn space card
+     */
+    public CompletableFuture<Card> travel() {
+        return submit(game -> game.travel(current(game)));
+    }
+
+    /**
+     * queues breathe for the current player
+     * @return future nº of oxygen the player has left
+     */
+    public CompletableFuture<Integer> breathe() {
+        return submit(game -> current(game).breathe());
+    }
+
+    /**
+     * queues endTurn
+     * @return future nº of players alive
+     */
+    public CompletableFuture<Integer> endTurn() {
+        return submit(GameEngine::endTurn);
+    }
+
+    /**
+     * queues drawCard
+     * @param player player drawing
+     * @return future drawn card
+     */
+    public CompletableFuture<Card> drawCard(Astronaut player) {
+        return submit(game -> game.drawCard(player));
+    }
+
+    /**
+     * queues travel
+     * @param traveller player travelling
+     * @return future drawn space card
+     */
+    public CompletableFuture<Card> travel(Astronaut traveller) {
+        return submit(game -> game.travel(traveller));
+    }
+
+    /**
+     * queues canPlay
+     * @param actor player playing the card
+     * @param card action card played
+     * @param target player the card is played on, or null for a rocket booster
+     * @return future whether the card can be played
+     */
+    public CompletableFuture<Boolean> canPlay(Astronaut actor, Card card, Astronaut target) {
+        return submit(game -> game.canPlay(actor, card, target));
+    }
+
+    /**
+     * queues playAction, letting a hack suit take the target's most valuable card
+     * @param actor player playing the card
+     * @param card action card played
+     * @param target player the card is played on, or null for a rocket booster
+     * @return future false if the target blocked the card with a shield
+     */
+    public CompletableFuture<Boolean> playAction(Astronaut actor, Card card, Astronaut target) {
+        return submit(game -> game.playAction(actor, card, target));
+    }
+
+    /**
+     * queues playAction
+     * @param actor player playing the card
+     * @param card action card played
+     * @param target player the card is played on, or null for a rocket booster
+     * @param choice card a hack suit takes from the target, or null for their most valuable
+     * @return future false if the target blocked the card with a shield
+     */
+    public CompletableFuture<Boolean> playAction(Astronaut actor, Card card, Astronaut target, Card choice) {
+        return submit(game -> game.playAction(actor, card, target, choice));
+    }
+
+    /**
+     * queues killPlayer
+     * @param corpse player who run out of oxygen
+     * @return future completed once the player is dead
+     */
+    public CompletableFuture<Void> killPlayer(Astronaut corpse) {
+        return submit(game -> {
+            game.killPlayer(corpse);
+            return null;
+        });
+    }
+
+    /**
+     * queues splitOxygen
+     * @param dbl oxygen(2) to split
+     * @return future pair of oxygen(1)s
+     */
+    public CompletableFuture<Oxygen[]> splitOxygen(Oxygen dbl) {
+        return submit(game -> game.splitOxygen(dbl));
+    }
+
+    /**
+     * queues mergeDecks
+     * @param deck1 deck to be restocked
+     * @param deck2 deck used to restock
+     * @return future completed once the decks are merged
+     */
+    public CompletableFuture<Void> mergeDecks(Deck deck1, Deck deck2) {
+        return submit(game -> {
+            game.mergeDecks(deck1, deck2);
+            return null;
+        });
+    }
+
+    /**
+     * queues setStats
+     * @param stats statistics to count in, or null to stop counting
+     * @return future completed once the game counts in them
+     */
+    public CompletableFuture<Void> setStats(SimulationStats stats) {
+        return submit(game -> {
+            game.setStats(stats);
+            return null;
+        });
+    }
+
+    /**
+     * queues saveState
+     * @param path pointer towards file where data is saved
+     * @return future completed once the game is saved, or with the GameException
+     * wrapped in a CompletionException
+     */
+    public CompletableFuture<Void> saveState(String path) {
+        return submitIo(game -> game.saveState(path));
+    }
+
+    /**
+     * queues saveState in the binary format
+     * @param path pointer towards file where data is saved
+     * @param compress whether to deflate the save
+     * @return future completed once the game is saved, or with the GameException
+     * wrapped in a CompletionException
+     */
+    public CompletableFuture<Void> saveState(String path, boolean compress) {
+        return submitIo(game -> game.saveState(path, compress));
+    }
+
+    /**
+     * queues startJournal
+     * @param path pointer towards file where the snapshot is saved
+     * @param sync when the journal forces its writes out to the disk
+     * @param snapshotEvery nº of operations after which saving writes a new snapshot
+     * @return future completed once the game is journaling, or with the
+     * GameException wrapped in a CompletionException
+     */
+    public CompletableFuture<Void> startJournal(String path, Journal.Sync sync, int snapshotEvery) {
+        return submitIo(game -> game.startJournal(path, sync, snapshotEvery));
+    }
+
+    /**
+     * queues stopJournal
+     * @return future completed once the journal is closed, or with the
+     * GameException wrapped in a CompletionException
+     */
+    public CompletableFuture<Void> stopJournal() {
+        return submitIo(GameEngine::stopJournal);
+    }
+
+    /**
+     * queues startRecording
+     * @param path file to record to
+     * @param checkpointEvery nº of turns between snapshots
+     * @return future completed once the game is recording, or with the
+     * GameException wrapped in a CompletionException
+     */
+    public CompletableFuture<Void> startRecording(String path, int checkpointEvery) {
+        return submitIo(game -> game.startRecording(path, checkpointEvery));
+    }
+
+    /**
+     * queues stopRecording
+     * @return future completed once the recording is closed, or with the
+     * GameException wrapped in a CompletionException
+     */
+    public CompletableFuture<Void> stopRecording() {
+        return submitIo(GameEngine::stopRecording);
+    }
+
+    /**
+     * queues copy, the way to read the decks, hands and tracks from another thread
+     * @return future copy of the game as it was when the command was applied
+     */
+    public CompletableFuture<GameEngine> copy() {
+        return submit(GameEngine::copy);
+    }
+
+    /**
+     * queues gameOver
+     * @return future true when someone has won or everyone is dead
+     */
+    public CompletableFuture<Boolean> gameOver() {
+        return submit(GameEngine::gameOver);
+    }
+
+    /**
+     * queues getAllPlayers
+     * @return future list of players, made for the caller
+     */
+    public CompletableFuture<List<Astronaut>> getAllPlayers() {
+        return submit(GameEngine::getAllPlayers);
+    }
+
+    /**
+     * queues getCurrentPlayer
+     * @return future current player, or null between turns
+     */
+    public CompletableFuture<Astronaut> getCurrentPlayer() {
+        return submit(GameEngine::getCurrentPlayer);
+    }
+
+    /**
+     * queues getFullPlayerCount
+     * @return future nº of players when the game started
+     */
+    public CompletableFuture<Integer> getFullPlayerCount() {
+        return submit(GameEngine::getFullPlayerCount);
+    }
+
+    /**
+     * queues getWinner
+     * @return future winning player or null
+     */
+    public CompletableFuture<Astronaut> getWinner() {
+        return submit(GameEngine::getWinner);
+    }
+
+    /**
+     * queues getGameDeck
+     * @return future deck of action cards, the game's own
+     */
+    public CompletableFuture<GameDeck> getGameDeck() {
+        return submit(GameEngine::getGameDeck);
+    }
+
+    /**
+     * queues getGameDiscard
+     * @return future deck of action cards discarded, the game's own
+     */
+    public CompletableFuture<GameDeck> getGameDiscard() {
+        return submit(GameEngine::getGameDiscard);
+    }
+
+    /**
+     * queues getSpaceDeck
+     * @return future deck of space cards, the game's own
+     */
+    public CompletableFuture<SpaceDeck> getSpaceDeck() {
+        return submit(GameEngine::getSpaceDeck);
+    }
+
+    /**
+     * queues getSpaceDiscard
+     * @return future deck of space cards discarded, the game's own
+     */
+    public CompletableFuture<SpaceDeck> getSpaceDiscard() {
+        return submit(GameEngine::getSpaceDiscard);
+    }
+
+    /**
+     * queues getBotRandom
+     * @return future randomizer for the computer's players, the game's own
+     */
+    public CompletableFuture<GameRandom> getBotRandom() {
+        return submit(GameEngine::getBotRandom);
+    }
+
+    /**
+     * queues a command that reads or writes a file, completing its future with
+     * the GameException it throws wrapped in a CompletionException
+     * @param command command, given the game once it is its turn
+     * @return future completed once the command is applied
+     */
+    private CompletableFuture<Void> submitIo(IoCommand command) {
+        return submit(game -> {
+            try {
+                command.apply(game);
+            }
+
+            catch (GameException ex) {
+                throw new CompletionException(ex);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * gives the player whose turn is in progress
+     * @param game game being played
+     * @return current player
+     * @throws IllegalStateException when no turn is in progress
+     */
+    private static Astronaut current(GameEngine game) {
+        Astronaut player = game.getCurrentPlayer();
+        if (player == null) throw new IllegalStateException("No turn in progress");
+        return player;
+    }
+
+    /**
+     * applies queued commands until the queue is empty or a batch is done,
+     * then hands the queue back to the executor if more have come in
+     */
+    private void drain() {
+        try {
+            for (int applied = 0; applied < BATCH; applied++) {
+                Node<?> next = this.head.next;
+                if (next == null) break;
+
+                this.head = next;
+                next.apply(this.game);
+            }
+        }
+
+        finally {
+            this.draining.set(false);
+            //a command queued since the last look would otherwise wait for the next submit
+            if (this.tail.get() != this.head && this.draining.compareAndSet(false, true)) {
+                this.executor.execute(this.drain);
+            }
+        }
+    }
+
+    /**
+     * a command that reads or writes a file
+     */
+    private interface IoCommand {
+
+        /**
+         * applies the command
+         * @param game game to apply it to
+         * @throws GameException when the file cannot be read or written
+         */
+        void apply(GameEngine game) throws GameException;
+    }
+
+    /**
+     * a queued command
+     * @param <T> type of the command's result
+     */
+    private static class Node<T> {
+
+        /**
+         * command to apply, null once applied
+         */
+        private Function<GameEngine, T> command;
+
+        /**
+         * future completed once the command is applied
+         */
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        /**
+         * command queued after this one, null until its producer links it
+         */
+        private volatile Node<?> next;
+
+        /**
+         * creates a node
+         * @param command command to apply
+         */
+        Node(Function<GameEngine, T> command) {
+            this.command = command;
+        }
+
+        /**
+         * applies the command and completes its future, with what it threw if it
+         * failed, errors included, so no caller is left waiting
+         * @param game game to apply it to
+         */
+        void apply(GameEngine game) {
+            Function<GameEngine, T> command = this.command;
+            this.command = null;
+            try {
+                this.result.complete(command.apply(game));
+            }
+
+            catch (Throwable ex) {
+                this.result.completeExceptionally(ex);
+            }
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package selfish;
+import java.util.Random;
+
+/**
+ * a splittable randomizer, the SplitMix64 generator java.util.SplittableRandom
+ * uses, behind java.util.Random's interface so decks can shuffle with it; its
+ * state is out in the open, so a game's randomizers can be saved and restored
+ * exactly, and split gives an independent randomizer whose numbers depend only
+ * on this one's state, so a game's streams come from its seed alone
+ * @author sofia hu
+ * @version 1.0
+ */
+public class GameRandom extends Random {
+
+    /**
+     * step of a randomizer made from a seed, the golden ratio in 64 bits
+     */
+    private final static long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    /**
+     * unique ID for GameRandom
+     */
+    private final static long serialVersionUID = 8l;
+
+    /**
+     * current state of the generator
+     */
+    private long state;
+
+    /**
+     * odd step the state moves by on every draw
+     */
+    private long gamma;
+
+    /**
+     * creates a randomizer
+     * @param seed seed for the randomizer
+     */
+    public GameRandom(long seed) {
+        super(seed);
+    }
+
+    /**
+     * creates a randomizer in a given state
+     * @param state state of the generator
+     * @param gamma step of the generator, made odd if it is not
+     */
+    public GameRandom(long state, long gamma) {
+        super(0);
+        this.state = state;
+        this.gamma = gamma | 1;
+    }
+
+    /**
+     * creates a randomizer in the same state as another, so both go on to
+     * produce the same numbers
+     * @param other randomizer to copy
+     */
+    public GameRandom(GameRandom other) {
+        this(other.state, other.gamma);
+    }
+
+    /**
+     * resets the randomizer as though it had been created with the seed
+     * @param seed seed for the randomizer
+     */
+    @Override
+    public void setSeed(long seed) {
+        this.state = seed;
+        this.gamma = GOLDEN_GAMMA;
+    }
+
+    /**
+     * gives a new randomizer, independent of this one, and moves this one on
+     * @return randomizer split off
+     */
+    public GameRandom split() {
+        long state = nextLong();
+        return new GameRandom(state, mixGamma(nextState()));
+    }
+
+    /**
+     * splits a new randomizer off into an existing one, as split would make it,
+     * and moves this one on
+     * @param into randomizer put into the split-off state, which may be this one
+     */
+    public void split(GameRandom into) {
+        long state = nextLong();
+        into.setState(state, mixGamma(nextState()));
+    }
+
+    /**
+     * generates the next random bits
+     * @param bits nº of random bits wanted
+     * @return random bits
+     */
+    @Override
+    protected int next(int bits) {
+        return (int)(mix64(nextState()) >>> (64 - bits));
+    }
+
+    /**
+     * generates a random long
+     * @return random long
+     */
+    @Override
+    public long nextLong() {
+        return mix64(nextState());
+    }
+
+    /**
+     * moves the state on by one step
+     * @return new state
+     */
+    private long nextState() {
+        return this.state += this.gamma;
+    }
+
+    /**
+     * scrambles a state into a random long, for engines that keep a randomizer's
+     * state and step in arrays of their own rather than in a GameRandom
+     * @param z state
+     * @return random long
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * scrambles a state into the step of a split randomizer: odd, and with
+     * enough bits changing between steps to spread the states out
+     * @param z state
+     * @return step
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+
+    /**
+     * gives the current state of the generator
+     * @return state
+     */
+    public long getState() {
+        return this.state;
+    }
+
+    /**
+     * gives the step of the generator
+     * @return step
+     */
+    public long getGamma() {
+        return this.gamma;
+    }
+
+    /**
+     * puts the generator back into a state given by getState and getGamma
+     * @param state state of the generator
+     * @param gamma step of the generator
+     */
+    public void setState(long state, long gamma) {
+        this.state = state;
+        this.gamma = gamma | 1;
+    }
+}
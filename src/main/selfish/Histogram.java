@@ -0,0 +1,152 @@
+package selfish;
+
+/**
+ * counts of non-negative values in log-linear buckets, the way HDR histograms
+ * keep them: exact below 64, then 32 buckets per power of two, so any value is
+ * off by at most about 3% and the histogram never grows, whatever it counts
+ * @author sofia hu
+ * @version 1.0
+ */
+public class Histogram {
+
+    /**
+     * log2 of the nº of buckets per power of two
+     */
+    private final static int SUB_BITS = 5;
+
+    /**
+     * nº of buckets per power of two
+     */
+    private final static int SUB = 1 << SUB_BITS;
+
+    /**
+     * nº of values counted in each bucket
+     */
+    private final long[] counts = new long[(64 - SUB_BITS) * SUB];
+
+    /**
+     * nº of values counted
+     */
+    private long total;
+
+    /**
+     * sum of the values counted
+     */
+    private long sum;
+
+    /**
+     * smallest value counted
+     */
+    private long min = Long.MAX_VALUE;
+
+    /**
+     * largest value counted
+     */
+    private long max;
+
+    /**
+     * counts a value
+     * @param value value, 0 or more
+     */
+    public void record(long value) {
+        if (value < 0) throw new IllegalArgumentException();
+
+        this.counts[bucket(value)]++;
+        this.total++;
+        this.sum += value;
+        this.min = Math.min(this.min, value);
+        this.max = Math.max(this.max, value);
+    }
+
+    /**
+     * adds another histogram's counts to this one
+     * @param other histogram to add
+     */
+    public void merge(Histogram other) {
+        for (int i = 0; i < this.counts.length; i++) {
+            this.counts[i] += other.counts[i];
+        }
+        this.total += other.total;
+        this.sum += other.sum;
+        this.min = Math.min(this.min, other.min);
+        this.max = Math.max(this.max, other.max);
+    }
+
+    /**
+     * gives the nº of values counted
+     * @return nº of values
+     */
+    public long getCount() {
+        return this.total;
+    }
+
+    /**
+     * gives the average of the values counted
+     * @return mean, 0 if none
+     */
+    public double getMean() {
+        return this.total == 0 ? 0 : (double)this.sum / this.total;
+    }
+
+    /**
+     * gives the smallest value counted
+     * @return smallest value, 0 if none
+     */
+    public long getMin() {
+        return this.total == 0 ? 0 : this.min;
+    }
+
+    /**
+     * gives the largest value counted
+     * @return largest value, 0 if none
+     */
+    public long getMax() {
+        return this.max;
+    }
+
+    /**
+     * gives the value below which a share of the values fall
+     * @param percentile share between 0 and 100
+     * @return highest value in the bucket holding that share, 0 if none
+     */
+    public long getPercentile(double percentile) {
+        if (this.total == 0) return 0;
+
+        long rank = Math.max(1, (long)Math.ceil(percentile / 100 * this.total));
+        long seen = 0;
+        for (int i = 0; i < this.counts.length; i++) {
+            seen += this.counts[i];
+            if (seen >= rank) {
+                return Math.min(highest(i), this.max);
+            }
+        }
+        return this.max;
+    }
+
+    /**
+     * gives the bucket a value is counted in
+     * @param value value, 0 or more
+     * @return index of the bucket
+     */
+    private static int bucket(long value) {
+        if (value < 2 * SUB) {
+            return (int)value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB + (int)(value >>> shift) - SUB;
+    }
+
+    /**
+     * gives the highest value counted in a bucket
+     * @param bucket index of the bucket
+     * @return highest value
+     */
+    private static long highest(int bucket) {
+        if (bucket < 2 * SUB) {
+            return bucket;
+        }
+        int shift = bucket / SUB - 1;
+        long lowest = (long)(bucket - shift * SUB) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,560 @@
+package selfish;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import selfish.deck.Card;
+import selfish.deck.CardCatalog;
+import selfish.deck.Deck;
+import selfish.deck.GameDeck;
+import selfish.deck.Oxygen;
+import selfish.deck.SpaceDeck;
+
+/**
+ * append-only file of the operations played on a game since its last snapshot;
+ * replaying it on top of the snapshot brings the game back to where it was
+ * @author sofia hu
+ * @version 1.0
+ */
+public class Journal implements Closeable {
+
+    /**
+     * when the journal forces its writes out to the disk
+     */
+    public enum Sync {
+        /**
+         * never, the operating system decides
+         */
+        NEVER,
+
+        /**
+         * whenever the game is saved
+         */
+        ON_SAVE,
+
+        /**
+         * after every operation
+         */
+        EVERY_RECORD
+    }
+
+    /**
+     * first four bytes of a journal file, "SLFJ"
+     */
+    private final static int MAGIC = 0x534C464A;
+
+    /**
+     * size of the write buffer
+     */
+    final static int BUFFER = 1 << 16;
+
+    /**
+     * card ids below this are fixed and written as they are; others are written by name
+     */
+    private final static int FIXED_IDS = 20;
+
+    /**
+     * operation codes
+     */
+    final static int ADD_PLAYER = 1, START_GAME = 2, START_TURN = 3, END_TURN = 4, DRAW = 5,
+        TRAVEL = 6, BREATHE = 7, HACK = 8, SIPHON = 9, STEAL = 10, SWAP_TRACK = 11,
+        KILL_PLAYER = 12, MERGE_DECKS = 13, SPLIT_OXYGEN = 14, ADD_TO_HAND = 15,
+        ADD_TO_TRACK = 16, LASER_BLAST = 17, PLAY_ACTION = 18, MERGE_CARDS = 19;
+
+    /**
+     * file being written
+     */
+    private final FileOutputStream file;
+
+    /**
+     * counts the bytes written to the file, buffered ones included
+     */
+    private final Counting counting;
+
+    /**
+     * buffered stream over the file
+     */
+    protected final DataOutputStream out;
+
+    /**
+     * when writes are forced out to the disk
+     */
+    private final Sync sync;
+
+    /**
+     * nº of operations written
+     */
+    private int records;
+
+    /**
+     * starts an empty journal, replacing any file at the path
+     * @param path file to write
+     * @param generation number of the snapshot the journal follows on from
+     * @param sync when writes are forced out to the disk
+     * @throws IOException when the file cannot be written
+     */
+    public Journal(String path, long generation, Sync sync) throws IOException {
+        this(path, sync);
+        this.out.writeInt(MAGIC);
+        this.out.writeLong(generation);
+        flush(true);
+    }
+
+    /**
+     * starts an empty file with no header, for a subclass to write its own
+     * @param path file to write
+     * @param sync when writes are forced out to the disk
+     * @throws IOException when the file cannot be written
+     */
+    Journal(String path, Sync sync) throws IOException {
+        this.file = new FileOutputStream(path);
+        this.counting = new Counting(new BufferedOutputStream(this.file, BUFFER));
+        this.out = new DataOutputStream(this.counting);
+        this.sync = sync;
+    }
+
+    /**
+     * gives the nº of operations written since the journal started
+     * @return nº of operations
+     */
+    public int records() {
+        return this.records;
+    }
+
+    /**
+     * gives the nº of bytes written to the file so far, which is where the next
+     * byte goes; unlike out.size() it does not stop at Integer.MAX_VALUE
+     * @return position in the file
+     */
+    long position() {
+        return this.counting.count;
+    }
+
+    /**
+     * writes an operation with no arguments
+     * @param op operation code
+     */
+    void append(int op) {
+        try {
+            this.out.writeByte(op);
+            written();
+        }
+
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * writes an operation on a player
+     * @param op operation code
+     * @param seat seat of the player
+     */
+    void append(int op, int seat) {
+        try {
+            this.out.writeByte(op);
+            this.out.writeByte(seat);
+            written();
+        }
+
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * writes an operation between two players
+     * @param op operation code
+     * @param seat seat of the player
+     * @param other seat of the other player
+     */
+    void append(int op, int seat, int other) {
+        try {
+            this.out.writeByte(op);
+            this.out.writeByte(seat);
+            this.out.writeByte(other);
+            written();
+        }
+
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * writes a merge of two decks
+     * @param deck1 code of the deck restocked, or -1 for a deck outside the game
+     * @param deck2 code of the deck used to restock, or -1 for a deck outside the game
+     * @param size nº of cards shuffled
+     */
+    void appendMerge(int deck1, int deck2, int size) {
+        try {
+            this.out.writeByte(MERGE_DECKS);
+            this.out.writeByte(deck1);
+            this.out.writeByte(deck2);
+            this.out.writeInt(size);
+            written();
+        }
+
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * writes a merge of a deck outside the game into one of the game's decks, with
+     * the cards it brought in, from the bottom to the top
+     * @param deck1 code of the deck restocked
+     * @param cards cards of the deck used to restock
+     */
+    void appendMerge(int deck1, Card[] cards) {
+        try {
+            this.out.writeByte(MERGE_CARDS);
+            this.out.writeByte(deck1);
+            this.out.writeInt(cards.length);
+            for (Card card : cards) {
+                writeCard(card);
+            }
+            written();
+        }
+
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * writes an operation on a player and a card
+     * @param op operation code
+     * @param seat seat of the player
+     * @param card card involved
+     */
+    void append(int op, int seat, Card card) {
+        try {
+            this.out.writeByte(op);
+            this.out.writeByte(seat);
+            writeCard(card);
+            written();
+        }
+
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * writes an action card played
+     * @param seat seat of the player playing it
+     * @param card card played
+     * @param target seat of the player it is played on, or -1 for none
+     * @param choice card a hack suit takes, or null for other cards
+     */
+    void appendPlay(int seat, Card card, int target, Card choice) {
+        try {
+            this.out.writeByte(PLAY_ACTION);
+            this.out.writeByte(seat);
+            writeCard(card);
+            this.out.writeByte(target);
+            if (choice != null) {
+                writeCard(choice);
+            }
+            written();
+        }
+
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * writes a card by its id, or by its name and description if its id is not fixed
+     * @param card card to write
+     * @throws IOException when the file cannot be written
+     */
+    private void writeCard(Card card) throws IOException {
+        if (card.getId() < FIXED_IDS) {
+            this.out.writeShort(card.getId());
+        }
+        else {
+            this.out.writeShort(-1);
+            this.out.writeUTF(card.toString());
+            this.out.writeUTF(card.getDescription());
+        }
+    }
+
+    /**
+     * writes an operation with a text argument
+     * @param op operation code
+     * @param text text involved
+     */
+    void append(int op, String text) {
+        try {
+            this.out.writeByte(op);
+            this.out.writeUTF(text);
+            written();
+        }
+
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * called by the game once a turn has ended and been written
+     * @param game game whose turn ended
+     */
+    void turnEnded(GameEngine game) {
+    }
+
+    /**
+     * counts an operation and forces it out if every record is synced
+     * @throws IOException when the file cannot be written
+     */
+    private void written() throws IOException {
+        this.records++;
+        if (this.sync == Sync.EVERY_RECORD) {
+            flush(true);
+        }
+    }
+
+    /**
+     * writes out the buffered operations, forcing them to the disk unless the journal never syncs
+     * @throws IOException when the file cannot be written
+     */
+    public void flush() throws IOException {
+        flush(this.sync != Sync.NEVER);
+    }
+
+    /**
+     * writes out the buffered operations
+     * @param force whether to force them to the disk
+     * @throws IOException when the file cannot be written
+     */
+    private void flush(boolean force) throws IOException {
+        this.out.flush();
+        if (force) {
+            this.file.getChannel().force(false);
+        }
+    }
+
+    /**
+     * writes out the buffered operations and closes the file
+     * @throws IOException when the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        this.out.close();
+    }
+
+    /**
+     * plays the operations in a journal on a game, if the journal follows on from the
+     * game's snapshot; a torn operation at the end of the file is ignored, and so is
+     * one the game's rules turn down, as they turned it down when it was first played
+     * @param path journal file
+     * @param generation number of the snapshot the game was loaded from
+     * @param game game to play the operations on, which must not be journaling
+     * @return nº of operations played
+     * @throws IOException when the file cannot be read or holds an operation that
+     * cannot be decoded
+     */
+    static int replay(String path, long generation, GameEngine game) throws IOException {
+        if (!new File(path).exists()) return 0;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(path), BUFFER))) {
+            if (in.readInt() != MAGIC || in.readLong() != generation) return 0;
+
+            int played = 0;
+            while (true) {
+                int op = in.read();
+                if (op < 0) break;
+
+                try {
+                    apply(op, in, game);
+                }
+
+                catch (EOFException ex) {
+                    break;
+                }
+
+                catch (IllegalStateException | IllegalArgumentException ex) {
+                    //the operation failed the same way when it was first played
+                }
+                played++;
+            }
+            return played;
+        }
+
+        catch (EOFException ex) {
+            return 0;
+        }
+    }
+
+    /**
+     * reads the arguments of one operation and plays it; the game's rules turn down
+     * an operation by throwing IllegalStateException or IllegalArgumentException
+     * @param op operation code
+     * @param in stream positioned after the code
+     * @param game game to play it on
+     * @throws IOException when the stream cannot be read, or is not an operation
+     * this version can decode
+     */
+    static void apply(int op, DataInputStream in, GameEngine game) throws IOException {
+        if (op < ADD_PLAYER || op > MERGE_CARDS) throw new StreamCorruptedException("Unknown journal operation " + op);
+
+        switch (op) {
+            case ADD_PLAYER: game.addPlayer(in.readUTF()); return;
+            case START_GAME: game.startGame(); return;
+            case START_TURN: game.startTurn(); return;
+            case END_TURN: game.endTurn(); return;
+            case SPLIT_OXYGEN: game.splitOxygen((Oxygen)CardCatalog.card(GameDeck.OXYGEN_2_ID)); return;
+            case MERGE_DECKS: {
+                Deck deck1 = readDeck(in, game);
+                Deck deck2 = readDeck(in, game);
+                int size = in.readInt();
+                if (deck1 == null || deck2 == null) {
+                    //the shuffle happened outside the game, so only its draws are played again,
+                    //after emptying the game's deck if that is where the cards came from
+                    if (deck2 != null) {
+                        scratch(deck2).addAll(deck2);
+                    }
+                    Collections.shuffle(Arrays.asList(new Object[size]), game.getRandom());
+                }
+                else {
+                    game.mergeDecks(deck1, deck2);
+                }
+                return;
+            }
+            case MERGE_CARDS: {
+                Deck deck1 = readDeck(in, game);
+                if (deck1 == null) throw new StreamCorruptedException("Merge of cards into no deck in journal");
+
+                Deck deck2 = scratch(deck1);
+                for (int i = in.readInt(); i > 0; i--) {
+                    deck2.add(readCard(in));
+                }
+                game.mergeDecks(deck1, deck2);
+                return;
+            }
+            default: break;
+        }
+
+        Astronaut player = seat(game, in.readUnsignedByte());
+        switch (op) {
+            case DRAW: game.drawCard(player); break;
+            case TRAVEL: game.travel(player); break;
+            case BREATHE: player.breathe(); break;
+            case SIPHON: player.siphon(); break;
+            case KILL_PLAYER: game.killPlayer(player); break;
+            case LASER_BLAST: player.laserBlast(); break;
+            case SWAP_TRACK: player.swapTrack(seat(game, in.readUnsignedByte())); break;
+            case HACK: player.hack(readCard(in)); break;
+            case STEAL: player.steal(readCard(in)); break;
+            case ADD_TO_HAND: player.addToHand(readCard(in)); break;
+            case ADD_TO_TRACK: player.addToTrack(readCard(in)); break;
+            case PLAY_ACTION: {
+                Card card = readCard(in);
+                int target = in.readUnsignedByte();
+                Card choice = card.getId() == GameDeck.HACK_SUIT_ID ? readCard(in) : null;
+                game.playAction(player, card, target == 0xFF ? null : seat(game, target), choice);
+                break;
+            }
+            default: throw new StreamCorruptedException("Unknown journal operation " + op);
+        }
+    }
+
+    /**
+     * makes an empty deck outside the game, of the same kind as one of its decks
+     * @param deck deck of the game
+     * @return empty deck
+     */
+    private static Deck scratch(Deck deck) {
+        return deck instanceof SpaceDeck ? new SpaceDeck() : new GameDeck();
+    }
+
+    /**
+     * reads a card written by append
+     * @param in stream to read from
+     * @return shared card
+     * @throws IOException when the stream cannot be read
+     */
+    private static Card readCard(DataInputStream in) throws IOException {
+        int id = in.readShort();
+        if (id >= 0) {
+            Card card = CardCatalog.card(id);
+            if (card == null) throw new StreamCorruptedException("Unknown card " + id + " in journal");
+            return card;
+        }
+        return CardCatalog.card(in.readUTF(), in.readUTF());
+    }
+
+    /**
+     * gives the player in a seat read from the journal
+     * @param game game the player is in
+     * @param seat seat read
+     * @return player in the seat
+     * @throws IOException when the seat is empty
+     */
+    private static Astronaut seat(GameEngine game, int seat) throws IOException {
+        if (seat >= game.getFullPlayerCount()) throw new StreamCorruptedException("No player in seat " + seat + " of journal");
+        return game.getSeat(seat);
+    }
+
+    /**
+     * reads a deck written as its code
+     * @param in stream to read from
+     * @param game game the deck is in
+     * @return deck, or null for a deck outside the game
+     * @throws IOException when the stream cannot be read or the code is for no deck
+     */
+    private static Deck readDeck(DataInputStream in, GameEngine game) throws IOException {
+        int code = in.readByte();
+        Deck deck = game.getDeck(code);
+        if (deck == null && code != -1) throw new StreamCorruptedException("Unknown deck " + code + " in journal");
+        return deck;
+    }
+
+    /**
+     * stream that counts the bytes written through it in a long
+     */
+    private static class Counting extends FilterOutputStream {
+
+        /**
+         * nº of bytes written
+         */
+        private long count;
+
+        /**
+         * creates a stream counting from 0
+         * @param out stream to write to
+         */
+        Counting(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            this.out.write(b);
+            this.count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            this.out.write(b, off, len);
+            this.count += len;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package selfish;
+import java.io.File;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * flight recorder event covering a saveState or loadState
+ * @author sofia hu
+ * @version 1.0
+ */
+@Name("selfish.Persistence")
+@Label("Save or Load")
+@Category("Selfish")
+@Description("A game saved to or loaded from a file")
+class PersistenceEvent extends Event {
+
+    /**
+     * the event's type, to check whether a recording wants it before making one
+     */
+    private final static EventType TYPE = EventType.getEventType(PersistenceEvent.class);
+
+    /**
+     * "save" or "load"
+     */
+    @Label("Operation")
+    String operation;
+
+    /**
+     * file saved to or loaded from
+     */
+    @Label("Path")
+    String path;
+
+    /**
+     * size of the file afterwards
+     */
+    @Label("File Size")
+    @DataAmount
+    long bytes;
+
+    /**
+     * starts timing a save or load, if a recording wants persistence events
+     * @param operation "save" or "load"
+     * @param path file saved to or loaded from
+     * @return event being timed, or null if no recording wants it
+     */
+    static PersistenceEvent start(String operation, String path) {
+        if (!TYPE.isEnabled()) return null;
+
+        PersistenceEvent event = new PersistenceEvent();
+        event.operation = operation;
+        event.path = path;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * ends the timing and records the event
+     * @param event what start gave, may be null
+     */
+    static void finish(PersistenceEvent event) {
+        if (event == null) return;
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.bytes = new File(event.path).length();
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package selfish;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
+/**
+ * a journal of a whole game, written from the moment the game was created: a
+ * header with the game's seed, card files and a snapshot of the game as it was
+ * created, so its cards are kept even if the files move or change, every
+ * operation on the game, a compressed snapshot every few turns, and an index of
+ * the snapshots at the end, which Replay reads to seek to a turn
+ * <pre> file: magic, version, seed, action cards, space cards, length snapshot,
+ *      then operations and CHECKPOINT turn length snapshot, then END turns count
+ *      (turn offset)* start TRAILER </pre>
+ * @author sofia hu
+ * @version 1.0
+ */
+class Recording extends Journal {
+
+    /**
+     * first four bytes of a recording, "SLFR"
+     */
+    final static int MAGIC = 0x534C4652;
+
+    /**
+     * version of the format written; version 1 had no snapshot in its header
+     */
+    final static int VERSION = 2;
+
+    /**
+     * last four bytes of a recording that was closed, "SLFI"
+     */
+    final static int TRAILER = 0x534C4649;
+
+    /**
+     * codes of the records that are not operations
+     */
+    final static int CHECKPOINT = 64, END = 65;
+
+    /**
+     * nº of turns between snapshots
+     */
+    private final int checkpointEvery;
+
+    /**
+     * nº of turns ended so far
+     */
+    private int turns;
+
+    /**
+     * nº of turns ended at each snapshot
+     */
+    private int[] checkpointTurns = new int[16];
+
+    /**
+     * position of each snapshot in the file
+     */
+    private long[] checkpointOffsets = new long[16];
+
+    /**
+     * nº of snapshots written
+     */
+    private int checkpoints;
+
+    /**
+     * buffer the snapshots are written to, to be measured before they go in the file
+     */
+    private final ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+
+    /**
+     * starts a recording, replacing any file at the path
+     * @param path file to write
+     * @param seed seed the game was created with
+     * @param gameDeck path to the game's action cards
+     * @param spaceDeck path to the game's space cards
+     * @param game game as it was created, not played yet
+     * @param checkpointEvery nº of turns between snapshots
+     * @throws IOException when the file cannot be written
+     */
+    Recording(String path, long seed, String gameDeck, String spaceDeck, GameEngine game, int checkpointEvery) throws IOException {
+        super(path, Sync.NEVER);
+        this.checkpointEvery = checkpointEvery;
+        this.out.writeInt(MAGIC);
+        this.out.writeShort(VERSION);
+        this.out.writeLong(seed);
+        this.out.writeUTF(gameDeck);
+        this.out.writeUTF(spaceDeck);
+        writeSnapshot(game);
+    }
+
+    /**
+     * counts the turn and writes a snapshot of the game if one is due
+     * @param game game whose turn ended
+     */
+    @Override
+    void turnEnded(GameEngine game) {
+        this.turns++;
+        if (this.turns % this.checkpointEvery != 0) return;
+
+        try {
+            if (this.checkpoints == this.checkpointTurns.length) {
+                this.checkpointTurns = Arrays.copyOf(this.checkpointTurns, this.checkpoints * 2);
+                this.checkpointOffsets = Arrays.copyOf(this.checkpointOffsets, this.checkpoints * 2);
+            }
+            this.checkpointTurns[this.checkpoints] = this.turns;
+            this.checkpointOffsets[this.checkpoints] = position();
+            this.checkpoints++;
+
+            this.out.writeByte(CHECKPOINT);
+            this.out.writeInt(this.turns);
+            writeSnapshot(game);
+        }
+
+        catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * writes a compressed snapshot of the game, after its length
+     * @param game game to write
+     * @throws IOException when the file cannot be written
+     */
+    private void writeSnapshot(GameEngine game) throws IOException {
+        this.snapshot.reset();
+        game.writeSnapshot(this.snapshot, true);
+        this.out.writeInt(this.snapshot.size());
+        this.snapshot.writeTo(this.out);
+    }
+
+    /**
+     * writes the index of the snapshots and closes the file
+     * @throws IOException when the file cannot be written
+     */
+    @Override
+    public void close() throws IOException {
+        long start = position();
+        this.out.writeByte(END);
+        this.out.writeInt(this.turns);
+        this.out.writeInt(this.checkpoints);
+        for (int i = 0; i < this.checkpoints; i++) {
+            this.out.writeInt(this.checkpointTurns[i]);
+            this.out.writeLong(this.checkpointOffsets[i]);
+        }
+        this.out.writeLong(start);
+        this.out.writeInt(TRAILER);
+        super.close();
+    }
+}
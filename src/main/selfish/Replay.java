@@ -0,0 +1,240 @@
+package selfish;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * a game recorded with GameEngine.startRecording, to be played back to any turn:
+ * seeking restores the last snapshot at or before the turn and plays only the
+ * operations after it; a recording that was never stopped has no index and is
+ * played from the start, which is the snapshot of the game as it was created,
+ * or for a version 1 recording a new game made from its card files
+ * @author sofia hu
+ * @version 1.0
+ */
+public class Replay {
+
+    /**
+     * recording file
+     */
+    private final String path;
+
+    /**
+     * seed the game was created with
+     */
+    private final long seed;
+
+    /**
+     * path to the game's action cards, read again only for a version 1 recording
+     */
+    private final String gameDeck;
+
+    /**
+     * path to the game's space cards, read again only for a version 1 recording
+     */
+    private final String spaceDeck;
+
+    /**
+     * position of the snapshot of the game as it was created, or -1 if the
+     * recording has none and the game is made again from its card files
+     */
+    private final long created;
+
+    /**
+     * position of the first operation in the file
+     */
+    private final long start;
+
+    /**
+     * nº of turns recorded, or -1 if the recording has no index
+     */
+    private final int turns;
+
+    /**
+     * nº of turns ended at each snapshot, in order
+     */
+    private final int[] checkpointTurns;
+
+    /**
+     * position of each snapshot in the file
+     */
+    private final long[] checkpointOffsets;
+
+    /**
+     * opens a recording and reads its header and index
+     * @param path recording file
+     * @throws GameException when the file cannot be read or is not a recording
+     */
+    public Replay(String path) throws GameException {
+        this.path = path;
+        try (RandomAccessFile file = new RandomAccessFile(path, "r")) {
+            if (file.readInt() != Recording.MAGIC) {
+                throw new GameException("Not a recording: " + path, null);
+            }
+            int version = file.readUnsignedShort();
+            if (version < 1 || version > Recording.VERSION) {
+                throw new GameException("Unsupported recording version " + version, null);
+            }
+            this.seed = file.readLong();
+            this.gameDeck = file.readUTF();
+            this.spaceDeck = file.readUTF();
+            if (version >= 2) {
+                this.created = file.getFilePointer();
+                file.seek(this.created + 4 + file.readInt());
+            }
+            else {
+                this.created = -1;
+            }
+            this.start = file.getFilePointer();
+
+            long length = file.length();
+            int trailer = 0;
+            long index = 0;
+            if (length >= this.start + 12) {
+                file.seek(length - 12);
+                index = file.readLong();
+                trailer = file.readInt();
+            }
+
+            if (trailer == Recording.TRAILER) {
+                file.seek(index + 1);
+                this.turns = file.readInt();
+                int checkpoints = file.readInt();
+                this.checkpointTurns = new int[checkpoints];
+                this.checkpointOffsets = new long[checkpoints];
+                for (int i = 0; i < checkpoints; i++) {
+                    this.checkpointTurns[i] = file.readInt();
+                    this.checkpointOffsets[i] = file.readLong();
+                }
+            }
+
+            else {
+                this.turns = -1;
+                this.checkpointTurns = new int[0];
+                this.checkpointOffsets = new long[0];
+            }
+        }
+
+        catch (IOException ex) {
+            throw new GameException("An error occurred when handling the file", ex);
+        }
+    }
+
+    /**
+     * gives the nº of turns recorded
+     * @return nº of turns, or -1 if the recording was never stopped
+     */
+    public int getTurns() {
+        return this.turns;
+    }
+
+    /**
+     * gives the nº of snapshots in the recording's index
+     * @return nº of snapshots
+     */
+    public int getCheckpoints() {
+        return this.checkpointTurns.length;
+    }
+
+    /**
+     * gives the seed the game was created with
+     * @return seed
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+
+    /**
+     * gives the game as it was once a nº of turns had ended, just before the next
+     * one started, or as it was at the end of the recording if it has fewer turns
+     * @param turn nº of turns ended, 0 for the game as it was before its first turn
+     * @return game, which is not journaling
+     * @throws GameException when the file, or the card files of a version 1
+     * recording, cannot be read, or the recording holds an operation that cannot
+     * be decoded
+     */
+    public GameEngine seek(int turn) throws GameException {
+        if (turn < 0) throw new IllegalArgumentException();
+
+        int checkpoint = Arrays.binarySearch(this.checkpointTurns, turn);
+        if (checkpoint < 0) {
+            checkpoint = -checkpoint - 2;
+        }
+
+        try (FileInputStream file = new FileInputStream(this.path)) {
+            if (checkpoint >= 0) {
+                file.getChannel().position(this.checkpointOffsets[checkpoint]);
+            }
+            else {
+                file.getChannel().position(this.created >= 0 ? this.created : this.start);
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(file, Journal.BUFFER));
+
+            GameEngine game;
+            int ended;
+            if (checkpoint < 0) {
+                game = this.created >= 0 ? readCheckpoint(in) : new GameEngine(this.seed, this.gameDeck, this.spaceDeck);
+                ended = 0;
+            }
+            else {
+                in.readUnsignedByte();
+                ended = in.readInt();
+                game = readCheckpoint(in);
+            }
+
+            while (true) {
+                int op = in.read();
+                if (op < 0 || op == Recording.END) break;
+
+                if (op == Recording.CHECKPOINT) {
+                    in.readInt();
+                    in.skipNBytes(in.readInt());
+                    continue;
+                }
+                if (op == Journal.START_TURN && ended >= turn) break;
+
+                try {
+                    Journal.apply(op, in, game);
+                }
+
+                catch (EOFException ex) {
+                    break;
+                }
+
+                catch (IllegalStateException | IllegalArgumentException ex) {
+                    //the operation failed the same way when it was first played
+                }
+
+                if (op == Journal.END_TURN) {
+                    ended++;
+                }
+            }
+            return game;
+        }
+
+        catch (IOException ex) {
+            throw new GameException("An error occurred when handling the file", ex);
+        }
+    }
+
+    /**
+     * reads a snapshot record's game, after its turn
+     * @param in stream positioned at the snapshot's length
+     * @return game in the snapshot
+     * @throws GameException when the snapshot is not a game this version can read
+     * @throws IOException when the stream cannot be read
+     */
+    private static GameEngine readCheckpoint(DataInputStream in) throws GameException, IOException {
+        byte[] snapshot = new byte[in.readInt()];
+        in.readFully(snapshot);
+
+        DataInputStream snapshotIn = new DataInputStream(new ByteArrayInputStream(snapshot));
+        snapshotIn.readInt();
+        return GameEngine.readSnapshot(snapshotIn);
+    }
+}
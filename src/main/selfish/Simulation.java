@@ -0,0 +1,336 @@
+package selfish;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import selfish.deck.SpaceDeck;
+
+/**
+ * plays whole games headlessly over a range of seeds, spread across threads
+ * @author sofia hu
+ * @version 1.0
+ */
+public class Simulation {
+
+    /**
+     * default file of action cards
+     */
+    public final static String ACTION_CARDS = "io/ActionCards.txt";
+
+    /**
+     * default file of space cards
+     */
+    public final static String SPACE_CARDS = "io/SpaceCards.txt";
+
+    /**
+     * turns after which a game is abandoned without a winner
+     */
+    public final static int MAX_TURNS = 1000;
+
+    /**
+     * nº of seeds a worker claims at a time
+     */
+    private final static int BATCH = 256;
+
+    /**
+     * path to the action cards
+     */
+    private final String gameDeckPath;
+
+    /**
+     * path to the space cards
+     */
+    private final String spaceDeckPath;
+
+    /**
+     * nº of players seated in every game
+     */
+    private final int players;
+
+    /**
+     * creates a simulation
+     * @param gameDeckPath path to the action cards
+     * @param spaceDeckPath path to the space cards
+     * @param players nº of players in each game, between 2 and 5
+     */
+    public Simulation(String gameDeckPath, String spaceDeckPath, int players) {
+        if (players < 2 || players > 5) throw new IllegalArgumentException();
+        this.gameDeckPath = gameDeckPath;
+        this.spaceDeckPath = spaceDeckPath;
+        this.players = players;
+    }
+
+    /**
+     * plays one game per seed in [firstSeed, firstSeed + games) on the given nº of threads
+     * @param firstSeed first seed of the range
+     * @param games nº of games to play
+     * @param threads nº of worker threads
+     * @return totals over every game played
+     * @throws GameException when the card files cannot be read
+     */
+    public Report run(long firstSeed, long games, int threads) throws GameException {
+        if (games < 0 || threads < 1) throw new IllegalArgumentException();
+
+        long end = firstSeed + games;
+        AtomicLong nextSeed = new AtomicLong(firstSeed);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<Report>> workers = new ArrayList<>();
+        long start = System.nanoTime();
+
+        for (int i = 0; i < threads; i++) {
+            workers.add(pool.submit(() -> {
+                Report report = new Report(this.players);
+                long from;
+                while ((from = nextSeed.getAndAdd(BATCH)) < end) {
+                    long to = Math.min(from + BATCH, end);
+                    for (long seed = from; seed < to; seed++) {
+                        playGame(seed, report);
+                    }
+                }
+                return report;
+            }));
+        }
+
+        Report total = new Report(this.players);
+        try {
+            for (Future<Report> worker : workers) {
+                total.merge(worker.get());
+            }
+        }
+
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GameException("The simulation was interrupted", ex);
+        }
+
+        catch (ExecutionException ex) {
+            if (ex.getCause() instanceof GameException) throw (GameException)ex.getCause();
+            throw new GameException("A simulated game failed", ex.getCause());
+        }
+
+        finally {
+            pool.shutdownNow();
+        }
+
+        total.nanos = System.nanoTime() - start;
+        return total;
+    }
+
+    /**
+     * plays a single game to the end and adds its outcome to the report
+     * @param seed seed for the game
+     * @param report report the outcome is added to
+     * @return game as it ended
+     * @throws GameException when the card files cannot be read
+     */
+    public GameEngine playGame(long seed, Report report) throws GameException {
+        return playGame(seed, report, null, 0);
+    }
+
+    /**
+     * plays a single game to the end, recording it to a file Replay can play back
+     * @param seed seed for the game
+     * @param path file to record to
+     * @param checkpointEvery nº of turns between snapshots in the recording
+     * @return outcome of the game
+     * @throws GameException when the card files cannot be read or the recording cannot be written
+     */
+    public Report recordGame(long seed, String path, int checkpointEvery) throws GameException {
+        Report report = new Report(this.players);
+        playGame(seed, report, path, checkpointEvery);
+        return report;
+    }
+
+    /**
+     * plays a single game to the end and adds its outcome to the report
+     * @param seed seed for the game
+     * @param report report the outcome is added to
+     * @param path file to record the game to, or null not to record it
+     * @param checkpointEvery nº of turns between snapshots in the recording
+     * @return game as it ended
+     * @throws GameException when the card files cannot be read or the recording cannot be written
+     */
+    private GameEngine playGame(long seed, Report report, String path, int checkpointEvery) throws GameException {
+        GameEngine game = new GameEngine(seed, this.gameDeckPath, this.spaceDeckPath);
+        if (path != null) {
+            game.startRecording(path, checkpointEvery);
+        }
+        for (int i = 0; i < this.players; i++) {
+            game.addPlayer("Player " + (i + 1));
+        }
+        game.setStats(report.stats);
+
+        int turns = 0;
+        try {
+            game.startGame();
+            while (!game.gameOver() && turns < MAX_TURNS) {
+                game.startTurn();
+                takeTurn(game, game.getCurrentPlayer());
+                game.endTurn();
+                turns++;
+            }
+        }
+
+        finally {
+            game.stopRecording();
+        }
+
+        boolean won = game.getWinner() != null;
+        report.games++;
+        report.turns += turns;
+        report.stats.gameFinished(turns, won);
+        return game;
+    }
+
+    /**
+     * plays a turn: the player draws a game card, then travels while they
+     * can spare the oxygen, otherwise rests and breathes once
+     * @param game game being played
+     * @param player player whose turn it is
+     */
+    static void takeTurn(GameEngine game, Astronaut player) {
+        openTurn(game, player);
+        if (player.oxygenRemaining() > 2 && game.getSpaceDeck().size() > 0) {
+            game.travel(player);
+        }
+        else {
+            player.breathe();
+        }
+    }
+
+    /**
+     * starts a turn: the player draws a game card if there are any left, and the
+     * space deck is restocked from its discard pile if it has run out
+     * @param game game being played
+     * @param player player whose turn it is
+     */
+    static void openTurn(GameEngine game, Astronaut player) {
+        if (game.getGameDeck().size() + game.getGameDiscard().size() > 0) {
+            game.drawCard(player);
+        }
+
+        SpaceDeck spaceDeck = game.getSpaceDeck();
+        if (spaceDeck.size() == 0) {
+            game.mergeDecks(spaceDeck, game.getSpaceDiscard());
+        }
+    }
+
+    /**
+     * running totals of a batch of games
+     */
+    public static class Report {
+
+        /**
+         * nº of games played
+         */
+        private long games;
+
+        /**
+         * nº of turns over all games
+         */
+        private long turns;
+
+        /**
+         * nº of seats in every game
+         */
+        private final int seats;
+
+        /**
+         * distributions over the games, fed by the engine
+         */
+        private final SimulationStats stats;
+
+        /**
+         * wall-clock time the batch took
+         */
+        private long nanos;
+
+        /**
+         * creates an empty report
+         * @param players nº of seats
+         */
+        public Report(int players) {
+            this.seats = players;
+            this.stats = new SimulationStats(players);
+        }
+
+        /**
+         * adds another report's totals to this one
+         * @param other report to add
+         */
+        public void merge(Report other) {
+            this.games += other.games;
+            this.turns += other.turns;
+            this.stats.merge(other.stats);
+        }
+
+        /**
+         * gives the nº of games played
+         * @return nº of games
+         */
+        public long getGames() {
+            return this.games;
+        }
+
+        /**
+         * gives the nº of turns over all games
+         * @return nº of turns
+         */
+        public long getTurns() {
+            return this.turns;
+        }
+
+        /**
+         * gives the average nº of turns in a game
+         * @return turns per game
+         */
+        public double getTurnsPerGame() {
+            return this.games == 0 ? 0 : (double)this.turns / this.games;
+        }
+
+        /**
+         * gives the share of games won from a seat
+         * @param seat seat, in the order players joined
+         * @return win rate between 0 and 1
+         */
+        public double getWinRate(int seat) {
+            return this.games == 0 ? 0 : (double)this.stats.getWins(seat) / this.games;
+        }
+
+        /**
+         * gives the share of games no one won
+         * @return rate between 0 and 1
+         */
+        public double getNoWinnerRate() {
+            return this.games == 0 ? 0 : (double)this.stats.getNoWinner() / this.games;
+        }
+
+        /**
+         * gives the nº of games played per second of wall-clock time
+         * @return games per second
+         */
+        public double getGamesPerSecond() {
+            return this.nanos == 0 ? 0 : this.games * 1e9 / this.nanos;
+        }
+
+        /**
+         * gives the nº of seats
+         * @return nº of seats
+         */
+        public int getSeats() {
+            return this.seats;
+        }
+
+        /**
+         * gives the distributions over the games: game lengths, deaths and space cards
+         * @return statistics
+         */
+        public SimulationStats getStats() {
+            return this.stats;
+        }
+    }
+}
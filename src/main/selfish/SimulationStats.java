@@ -0,0 +1,194 @@
+package selfish;
+import java.util.Arrays;
+
+import selfish.deck.CardCatalog;
+
+/**
+ * statistics over any nº of games in a fixed amount of memory: a histogram of
+ * game lengths, wins by seat, deaths by cause and space cards drawn by kind;
+ * a game feeds it through the hooks in travel, killPlayer and getWinner once
+ * it is given one with setStats. Each thread keeps its own, and they are merged
+ * once the threads are done, so nothing is shared while games are played
+ * @author sofia hu
+ * @version 1.0
+ */
+public class SimulationStats {
+
+    /**
+     * what a player died of
+     */
+    public enum Death {
+        /**
+         * ran out of oxygen travelling, or lost it to a space card
+         */
+        TRAVELLING,
+
+        /**
+         * ran out of oxygen breathing at rest
+         */
+        BREATHING,
+
+        /**
+         * had their last oxygen siphoned
+         */
+        SIPHONED,
+
+        /**
+         * had their last oxygen hacked or stolen
+         */
+        HACKED,
+
+        /**
+         * lost their last oxygen through a hole in their suit
+         */
+        HOLE_IN_SUIT,
+
+        /**
+         * killed by a direct call to killPlayer
+         */
+        OTHER
+    }
+
+    /**
+     * nº of turns each game took
+     */
+    private final Histogram turns = new Histogram();
+
+    /**
+     * nº of games won from each seat
+     */
+    private long[] wins;
+
+    /**
+     * nº of games that ended with no winner
+     */
+    private long noWinner;
+
+    /**
+     * nº of deaths of each cause
+     */
+    private final long[] deaths = new long[Death.values().length];
+
+    /**
+     * nº of space cards drawn, by card id
+     */
+    private long[] spaceCards;
+
+    /**
+     * creates empty statistics
+     * @param seats nº of seats in the games
+     */
+    public SimulationStats(int seats) {
+        this.wins = new long[seats];
+        this.spaceCards = new long[CardCatalog.size()];
+    }
+
+    /**
+     * counts a space card drawn by a traveller
+     * @param id id of the card
+     */
+    void spaceCard(int id) {
+        if (id >= this.spaceCards.length) {
+            this.spaceCards = Arrays.copyOf(this.spaceCards, CardCatalog.size());
+        }
+        this.spaceCards[id]++;
+    }
+
+    /**
+     * counts a death
+     * @param cause what the player died of
+     */
+    void death(Death cause) {
+        this.deaths[cause.ordinal()]++;
+    }
+
+    /**
+     * counts a win
+     * @param seat seat of the winner, in the order players joined
+     */
+    void win(int seat) {
+        if (seat >= this.wins.length) {
+            this.wins = Arrays.copyOf(this.wins, seat + 1);
+        }
+        this.wins[seat]++;
+    }
+
+    /**
+     * counts a finished game
+     * @param turns nº of turns it took
+     * @param won whether someone won it
+     */
+    public void gameFinished(long turns, boolean won) {
+        this.turns.record(turns);
+        if (!won) {
+            this.noWinner++;
+        }
+    }
+
+    /**
+     * adds another thread's statistics to these
+     * @param other statistics to add
+     */
+    public void merge(SimulationStats other) {
+        this.turns.merge(other.turns);
+        if (other.wins.length > this.wins.length) {
+            this.wins = Arrays.copyOf(this.wins, other.wins.length);
+        }
+        for (int i = 0; i < other.wins.length; i++) {
+            this.wins[i] += other.wins[i];
+        }
+        this.noWinner += other.noWinner;
+        for (int i = 0; i < this.deaths.length; i++) {
+            this.deaths[i] += other.deaths[i];
+        }
+        if (other.spaceCards.length > this.spaceCards.length) {
+            this.spaceCards = Arrays.copyOf(this.spaceCards, other.spaceCards.length);
+        }
+        for (int i = 0; i < other.spaceCards.length; i++) {
+            this.spaceCards[i] += other.spaceCards[i];
+        }
+    }
+
+    /**
+     * gives the histogram of the nº of turns games took
+     * @return histogram of game lengths
+     */
+    public Histogram getTurns() {
+        return this.turns;
+    }
+
+    /**
+     * gives the nº of games won from a seat
+     * @param seat seat, in the order players joined
+     * @return nº of wins
+     */
+    public long getWins(int seat) {
+        return seat < this.wins.length ? this.wins[seat] : 0;
+    }
+
+    /**
+     * gives the nº of games that ended with no winner
+     * @return nº of games
+     */
+    public long getNoWinner() {
+        return this.noWinner;
+    }
+
+    /**
+     * gives the nº of deaths of a cause
+     * @param cause cause of death
+     * @return nº of deaths
+     */
+    public long getDeaths(Death cause) {
+        return this.deaths[cause.ordinal()];
+    }
+
+    /**
+     * gives the nº of times a kind of space card was drawn
+     * @param id id of the card
+     * @return nº of draws
+     */
+    public long getSpaceCards(int id) {
+        return id < this.spaceCards.length ? this.spaceCards[id] : 0;
+    }
+}
@@ -0,0 +1,18 @@
+package selfish;
+
+/**
+ * what a space card does to the player who travels onto it
+ * @author sofia hu
+ * @version 1.0
+ */
+@FunctionalInterface
+interface SpaceEffect {
+
+    /**
+     * applies the card's effect to the traveller, after the card has been placed
+     * @param game game being played
+     * @param traveller player who drew the card
+     * @return true if the traveller moves on and draws another space card
+     */
+    boolean resolve(GameEngine game, Astronaut traveller);
+}
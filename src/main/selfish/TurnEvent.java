@@ -0,0 +1,67 @@
+package selfish;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * flight recorder event covering a turn, from startTurn to endTurn
+ * @author sofia hu
+ * @version 1.0
+ */
+@Name("selfish.Turn")
+@Label("Turn")
+@Category("Selfish")
+@Description("A player's turn, from startTurn to endTurn")
+class TurnEvent extends Event {
+
+    /**
+     * the event's type, to check whether a recording wants it before making one
+     */
+    private final static EventType TYPE = EventType.getEventType(TurnEvent.class);
+
+    /**
+     * name of the player whose turn it is
+     */
+    @Label("Player")
+    String player;
+
+    /**
+     * seat of the player, in the order players joined
+     */
+    @Label("Seat")
+    int seat;
+
+    /**
+     * nº of players alive when the turn ended
+     */
+    @Label("Players Alive")
+    int alive;
+
+    /**
+     * tells whether a recording wants turn events, so callers can skip working out
+     * an event's fields when none does
+     * @return whether turn events are enabled
+     */
+    static boolean wanted() {
+        return TYPE.isEnabled();
+    }
+
+    /**
+     * starts timing a turn, if a recording wants turn events
+     * @param player name of the player
+     * @param seat seat of the player
+     * @return event being timed, or null if no recording wants it
+     */
+    static TurnEvent start(String player, int seat) {
+        if (!TYPE.isEnabled()) return null;
+
+        TurnEvent event = new TurnEvent();
+        event.player = player;
+        event.seat = seat;
+        event.begin();
+        return event;
+    }
+}
@@ -0,0 +1,915 @@
+package selfish.batch;
+import java.util.Arrays;
+
+import selfish.GameException;
+import selfish.GameRandom;
+import selfish.Simulation;
+import selfish.deck.Card;
+import selfish.deck.CardCatalog;
+import selfish.deck.GameDeck;
+import selfish.deck.SpaceDeck;
+
+/**
+ * plays many headless games at once, by Simulation's rules, with every game kept
+ * in flat arrays indexed by game instead of an object graph of its own: the decks
+ * as card ids, and for each player the cards in hand, oxygen, track length and the
+ * card on top of the track. Each step plays one turn of every game still going, so
+ * the same few arrays are walked for thousands of games; for the same seed a game
+ * ends with the same winner, nº of turns and players as Simulation's GameEngine.
+ * <p>
+ * It only plays Simulation's bot: every player draws, then travels or breathes,
+ * and no one ever plays an action card. There is no path for playing action cards,
+ * so no Shield, Tether, Laser blast, Hack suit or the like, and a rule sweep that
+ * needs them has to run on GameEngine; EngineCheck --verify-batch matches the two
+ * only under this bot. The arrays are walked with plain loops, not the vector API:
+ * on one thread, with 200000 five-player games, it measures 2.1 to 3.2 million
+ * turns a second against GameEngine's 0.9 million, far from the hundreds of
+ * millions a second it was meant for
+ * @author sofia hu
+ * @version 1.0
+ */
+public class BatchEngine {
+
+    /**
+     * deck the action cards are drawn from
+     */
+    private final static int GAME_DECK = 0;
+
+    /**
+     * pile used action cards go to
+     */
+    private final static int GAME_DISCARD = 1;
+
+    /**
+     * deck the space cards are drawn from
+     */
+    private final static int SPACE_DECK = 2;
+
+    /**
+     * pile gravitational anomalies go to
+     */
+    private final static int SPACE_DISCARD = 3;
+
+    /**
+     * nº of decks in a game
+     */
+    private final static int DECKS = 4;
+
+    /**
+     * length of a track that reaches the ship
+     */
+    private final static int SHIP = 6;
+
+    /**
+     * state of a game still being played
+     */
+    private final static byte PLAYING = 0;
+
+    /**
+     * state of a game that ended, with or without a winner
+     */
+    private final static byte OVER = 1;
+
+    /**
+     * state of a game the rules could not play to the end
+     */
+    private final static byte FAILED = 2;
+
+    /**
+     * nº of games
+     */
+    private final int games;
+
+    /**
+     * nº of players in every game
+     */
+    private final int players;
+
+    /**
+     * action cards as the file lists them, before shuffling
+     */
+    private final byte[] gameCards;
+
+    /**
+     * space cards as the file lists them, before shuffling
+     */
+    private final byte[] spaceCards;
+
+    /**
+     * nº of card ids a hand counts, one past the highest action card id
+     */
+    private final int kinds;
+
+    /**
+     * action card ids in the order Card.compareTo sorts them, oxygen left out
+     */
+    private final int[] actionsByRank;
+
+    /**
+     * slots a game's cards take up in decks
+     */
+    private final int stride;
+
+    /**
+     * first slot of each deck within a game's slots
+     */
+    private final int[] deckStart;
+
+    /**
+     * card ids of every deck of every game, bottom of the deck first
+     */
+    private final byte[] decks;
+
+    /**
+     * nº of cards in every deck, indexed by game * DECKS + deck
+     */
+    private final int[] deckSize;
+
+    /**
+     * nº of oxygen(1)s in every deck, indexed like deckSize
+     */
+    private final int[] deckOxygen1;
+
+    /**
+     * state of each game's shuffling randomizer
+     */
+    private final long[] randomState;
+
+    /**
+     * step of each game's shuffling randomizer
+     */
+    private final long[] randomGamma;
+
+    /**
+     * nº of each card id in every hand, indexed by (game * players + seat) * kinds + id
+     */
+    private final int[] hands;
+
+    /**
+     * nº of action cards in every hand, indexed by game * players + seat
+     */
+    private final int[] actionCount;
+
+    /**
+     * nº of oxygen cards in every hand
+     */
+    private final int[] oxygenCount;
+
+    /**
+     * oxygen every player has left
+     */
+    private final int[] oxygen;
+
+    /**
+     * nº of space cards on every player's track
+     */
+    private final int[] trackLength;
+
+    /**
+     * id of the card on top of every player's track, or -1 for an empty track
+     */
+    private final int[] trackTop;
+
+    /**
+     * seats of the players waiting for a turn in every game, as a ring per game
+     */
+    private final int[] queue;
+
+    /**
+     * position of the first waiting player in each game's ring
+     */
+    private final int[] queueHead;
+
+    /**
+     * nº of waiting players in each game
+     */
+    private final int[] queueSize;
+
+    /**
+     * nº of turns each game has played
+     */
+    private final int[] turns;
+
+    /**
+     * seat of each game's winner, or -1
+     */
+    private final int[] winner;
+
+    /**
+     * whether each game is being played, over or failed
+     */
+    private final byte[] state;
+
+    /**
+     * creates a batch of games, not yet dealt
+     * @param gameDeckPath path to the action cards
+     * @param spaceDeckPath path to the space cards
+     * @param games nº of games in the batch
+     * @param players nº of players in each game, between 2 and 5
+     * @throws GameException when the card files cannot be read
+     */
+    public BatchEngine(String gameDeckPath, String spaceDeckPath, int games, int players) throws GameException {
+        if (games < 1 || players < 2 || players > 5) throw new IllegalArgumentException();
+        this.games = games;
+        this.players = players;
+        this.gameCards = ids(new GameDeck(gameDeckPath).getCards());
+        this.spaceCards = ids(new SpaceDeck(spaceDeckPath).getCards());
+
+        int kinds = GameDeck.OXYGEN_2_ID + 1;
+        for (byte id : this.gameCards) {
+            kinds = Math.max(kinds, id + 1);
+        }
+        this.kinds = kinds;
+        int actions = 0;
+        int[] byRank = new int[kinds];
+        for (int rank = 0; rank < CardCatalog.size(); rank++) {
+            int id = CardCatalog.byRank(rank);
+            if (id < kinds && id != GameDeck.OXYGEN_1_ID && id != GameDeck.OXYGEN_2_ID) {
+                byRank[actions++] = id;
+            }
+        }
+        this.actionsByRank = Arrays.copyOf(byRank, actions);
+
+        //every card of a kind can end up in one deck, so each deck has room for all of them
+        this.deckStart = new int[] {0, this.gameCards.length, 2 * this.gameCards.length,
+            2 * this.gameCards.length + this.spaceCards.length};
+        this.stride = 2 * (this.gameCards.length + this.spaceCards.length);
+        this.decks = new byte[games * this.stride];
+        this.deckSize = new int[games * DECKS];
+        this.deckOxygen1 = new int[games * DECKS];
+        this.randomState = new long[games];
+        this.randomGamma = new long[games];
+
+        int seats = games * players;
+        this.hands = new int[seats * kinds];
+        this.actionCount = new int[seats];
+        this.oxygenCount = new int[seats];
+        this.oxygen = new int[seats];
+        this.trackLength = new int[seats];
+        this.trackTop = new int[seats];
+        this.queue = new int[seats];
+        this.queueHead = new int[games];
+        this.queueSize = new int[games];
+        this.turns = new int[games];
+        this.winner = new int[games];
+        this.state = new byte[games];
+    }
+
+    /**
+     * gives the ids of cards, checking they fit in a byte
+     * @param cards cards
+     * @return ids, in the same order
+     */
+    private static byte[] ids(Card[] cards) {
+        byte[] ids = new byte[cards.length];
+        for (int i = 0; i < cards.length; i++) {
+            int id = cards[i].getId();
+            if (id > Byte.MAX_VALUE) throw new IllegalStateException();
+            ids[i] = (byte)id;
+        }
+        return ids;
+    }
+
+    /**
+     * sets every game up and deals it, as a GameEngine created with the seed and
+     * started by Simulation would be; game g gets seed firstSeed + g
+     * @param firstSeed seed of the first game
+     */
+    public void reset(long firstSeed) {
+        Arrays.fill(this.hands, 0);
+        for (int g = 0; g < this.games; g++) {
+            GameRandom random = new GameRandom(firstSeed + g).split();
+            this.randomState[g] = random.getState();
+            this.randomGamma[g] = random.getGamma();
+
+            int base = g * DECKS;
+            Arrays.fill(this.deckSize, base, base + DECKS, 0);
+            Arrays.fill(this.deckOxygen1, base, base + DECKS, 0);
+            for (byte id : this.gameCards) {
+                push(g, GAME_DECK, id);
+            }
+            for (byte id : this.spaceCards) {
+                push(g, SPACE_DECK, id);
+            }
+            shuffle(g, GAME_DECK);
+            shuffle(g, SPACE_DECK);
+
+            int first = g * this.players;
+            for (int seat = 0; seat < this.players; seat++) {
+                int player = first + seat;
+                this.actionCount[player] = 0;
+                this.oxygenCount[player] = 0;
+                this.oxygen[player] = 0;
+                this.trackLength[player] = 0;
+                this.trackTop[player] = -1;
+                this.queue[player] = seat;
+            }
+            this.queueHead[g] = 0;
+            this.queueSize[g] = this.players;
+            this.turns[g] = 0;
+            this.winner[g] = -1;
+            this.state[g] = PLAYING;
+
+            for (int seat = 0; seat < this.players; seat++) {
+                recycle(g);
+                boolean dealt = take(g, GAME_DECK, GameDeck.OXYGEN_2_ID);
+                if (dealt) addToHand(first + seat, GameDeck.OXYGEN_2_ID);
+                for (int i = 0; i < 4 && dealt; i++) {
+                    recycle(g);
+                    dealt = take(g, GAME_DECK, GameDeck.OXYGEN_1_ID);
+                    if (dealt) addToHand(first + seat, GameDeck.OXYGEN_1_ID);
+                }
+                if (!dealt) {
+                    this.state[g] = FAILED;
+                    break;
+                }
+            }
+            for (int round = 0; round < 4 && this.state[g] == PLAYING; round++) {
+                for (int seat = 0; seat < this.players; seat++) {
+                    recycle(g);
+                    addToHand(first + seat, pop(g, GAME_DECK));
+                }
+            }
+        }
+    }
+
+    /**
+     * plays one turn of every game still going
+     * @return nº of games still going afterwards
+     */
+    public int step() {
+        return step(0, this.games);
+    }
+
+    /**
+     * plays one turn of every game still going in a range, so threads can each
+     * step a range of their own
+     * @param from first game of the range
+     * @param to one past the last game of the range
+     * @return nº of games in the range still going afterwards
+     */
+    public int step(int from, int to) {
+        if (from < 0 || to > this.games || from > to) throw new IllegalArgumentException();
+
+        int playing = 0;
+        for (int g = from; g < to; g++) {
+            if (this.state[g] != PLAYING) continue;
+            playTurn(g);
+            if (this.state[g] == PLAYING) {
+                playing++;
+            }
+        }
+        return playing;
+    }
+
+    /**
+     * steps every game until all of them are over
+     * @return nº of turns played over all games
+     */
+    public long run() {
+        long before = totalTurns();
+        while (step() > 0) { }
+        return totalTurns() - before;
+    }
+
+    /**
+     * gives the nº of turns played over all games
+     * @return nº of turns
+     */
+    private long totalTurns() {
+        long total = 0;
+        for (int turns : this.turns) {
+            total += turns;
+        }
+        return total;
+    }
+
+    /**
+     * plays a turn of a game, the way Simulation does, then decides whether the game is over
+     * @param g game
+     */
+    private void playTurn(int g) {
+        int head = this.queueHead[g];
+        int seat = this.queue[g * this.players + head];
+        this.queueHead[g] = head + 1 == this.players ? 0 : head + 1;
+        this.queueSize[g]--;
+        int player = g * this.players + seat;
+
+        if (!takeTurn(g, player)) {
+            this.state[g] = FAILED;
+            return;
+        }
+        if (this.oxygenCount[player] > 0) {
+            int tail = this.queueHead[g] + this.queueSize[g];
+            this.queue[g * this.players + (tail >= this.players ? tail - this.players : tail)] = seat;
+            this.queueSize[g]++;
+        }
+        this.turns[g]++;
+
+        //the winner is looked for in turn order, as GameEngine.getWinner does
+        for (int i = 0, at = this.queueHead[g]; i < this.queueSize[g]; i++, at = at + 1 == this.players ? 0 : at + 1) {
+            int waiting = this.queue[g * this.players + at];
+            int other = g * this.players + waiting;
+            if (this.oxygenCount[other] > 0 && this.trackLength[other] == SHIP) {
+                this.winner[g] = waiting;
+                this.state[g] = OVER;
+                return;
+            }
+        }
+        if (this.queueSize[g] == 0 || this.turns[g] >= Simulation.MAX_TURNS) {
+            this.state[g] = OVER;
+        }
+    }
+
+    /**
+     * the player draws a game card, then travels while they can spare the oxygen,
+     * otherwise rests and breathes once
+     * @param g game
+     * @param player player whose turn it is
+     * @return false if the rules could not resolve the turn
+     */
+    private boolean takeTurn(int g, int player) {
+        if (this.deckSize[g * DECKS + GAME_DECK] + this.deckSize[g * DECKS + GAME_DISCARD] > 0) {
+            recycle(g);
+            addToHand(player, pop(g, GAME_DECK));
+        }
+        if (this.deckSize[g * DECKS + SPACE_DECK] == 0) {
+            merge(g, SPACE_DECK, SPACE_DISCARD);
+        }
+
+        if (this.oxygen[player] > 2 && this.deckSize[g * DECKS + SPACE_DECK] > 0) {
+            return breathe(g, player) && breathe(g, player) && move(g, player);
+        }
+        return breathe(g, player);
+    }
+
+    /**
+     * draws space cards onto the player's track and resolves them, for as long as
+     * they move the player on
+     * @param g game
+     * @param player player travelling
+     * @return false if the rules could not resolve an effect
+     */
+    private boolean move(int g, int player) {
+        int card = pop(g, SPACE_DECK);
+        while (true) {
+            if (card == SpaceDeck.GRAVITATIONAL_ANOMALY_ID) {
+                push(g, SPACE_DISCARD, card);
+            }
+            else {
+                this.trackLength[player]++;
+                this.trackTop[player] = card;
+            }
+
+            boolean moveOn = false;
+            switch (card) {
+                case SpaceDeck.USEFUL_JUNK_ID:
+                    drawActions(g, player, 1);
+                    break;
+                case SpaceDeck.MYSTERIOUS_NEBULA_ID:
+                    drawActions(g, player, 2);
+                    break;
+                case SpaceDeck.HYPERSPACE_ID:
+                    moveOn = true;
+                    break;
+                case SpaceDeck.METEOROID_ID:
+                    meteoroid(g, player);
+                    break;
+                case SpaceDeck.COSMIC_RADIATION_ID:
+                    if (!loseOxygen(g, player, 1)) return false;
+                    break;
+                case SpaceDeck.ASTEROID_FIELD_ID:
+                    if (!loseOxygen(g, player, 2)) return false;
+                    break;
+                case SpaceDeck.WORMHOLE_ID:
+                    wormhole(g, player);
+                    break;
+                default:
+                    break;
+            }
+            if (!moveOn || this.oxygenCount[player] == 0 || this.trackLength[player] >= SHIP) break;
+
+            if (this.deckSize[g * DECKS + SPACE_DECK] == 0) {
+                merge(g, SPACE_DECK, SPACE_DISCARD);
+            }
+            if (this.deckSize[g * DECKS + SPACE_DECK] == 0) break;
+            card = pop(g, SPACE_DECK);
+        }
+        return true;
+    }
+
+    /**
+     * space card effect: the player picks up action cards
+     * @param g game
+     * @param player player who drew the space card
+     * @param cards nº of action cards to pick up
+     */
+    private void drawActions(int g, int player, int cards) {
+        for (int i = 0; i < cards; i++) {
+            recycle(g);
+            if (this.deckSize[g * DECKS + GAME_DECK] == 0) break;
+            addToHand(player, pop(g, GAME_DECK));
+        }
+    }
+
+    /**
+     * space card effect: the player breathes out oxygen to get through
+     * @param g game
+     * @param player player who drew the space card
+     * @param breaths nº of oxygen to discard
+     * @return false if the rules could not resolve a breath
+     */
+    private boolean loseOxygen(int g, int player, int breaths) {
+        for (int i = 0; i < breaths && this.oxygenCount[player] > 0; i++) {
+            if (!breathe(g, player)) return false;
+        }
+        return true;
+    }
+
+    /**
+     * space card effect: a player holding 6 or more cards discards 2, actions
+     * before oxygen and oxygen(1) before oxygen(2)
+     * @param g game
+     * @param player player who drew the space card
+     */
+    private void meteoroid(int g, int player) {
+        if (this.actionCount[player] + this.oxygenCount[player] < 6) return;
+
+        int hand = player * this.kinds;
+        for (int i = 0; i < 2 && this.oxygenCount[player] > 0; i++) {
+            int card = -1;
+            if (this.actionCount[player] > 0) {
+                for (int id : this.actionsByRank) {
+                    if (this.hands[hand + id] > 0) {
+                        card = id;
+                        break;
+                    }
+                }
+            }
+            else {
+                card = this.hands[hand + GameDeck.OXYGEN_1_ID] > 0 ? GameDeck.OXYGEN_1_ID : GameDeck.OXYGEN_2_ID;
+            }
+            takeFromHand(player, card);
+            if (this.oxygenCount[player] == 0) {
+                kill(g, player);
+            }
+            push(g, GAME_DISCARD, card);
+        }
+    }
+
+    /**
+     * space card effect: the player swaps tracks with the living player furthest
+     * along, if that player is ahead of them
+     * @param g game
+     * @param player player who drew the space card
+     */
+    private void wormhole(int g, int player) {
+        int furthest = -1;
+        for (int other = g * this.players, last = other + this.players; other < last; other++) {
+            if (other != player && this.oxygenCount[other] > 0
+                    && (furthest < 0 || this.trackLength[other] > this.trackLength[furthest])) {
+                furthest = other;
+            }
+        }
+        if (furthest >= 0 && this.trackLength[furthest] > this.trackLength[player]) {
+            int length = this.trackLength[player];
+            int top = this.trackTop[player];
+            this.trackLength[player] = this.trackLength[furthest];
+            this.trackTop[player] = this.trackTop[furthest];
+            this.trackLength[furthest] = length;
+            this.trackTop[furthest] = top;
+        }
+    }
+
+    /**
+     * the player discards an oxygen(1), splitting an oxygen(2) first if they hold
+     * none, and dies if it was their last
+     * @param g game
+     * @param player player breathing
+     * @return false if there were not enough oxygen(1)s left to split an oxygen(2)
+     */
+    private boolean breathe(int g, int player) {
+        int hand = player * this.kinds;
+        if (this.hands[hand + GameDeck.OXYGEN_1_ID] == 0) {
+            //split as GameEngine.splitOxygen does: two oxygen(1)s from one pile if it can spare them
+            int deck = g * DECKS;
+            if (this.deckOxygen1[deck + GAME_DECK] >= 2) {
+                take(g, GAME_DECK, GameDeck.OXYGEN_1_ID);
+                take(g, GAME_DECK, GameDeck.OXYGEN_1_ID);
+                push(g, GAME_DECK, GameDeck.OXYGEN_2_ID);
+            }
+            else if (this.deckOxygen1[deck + GAME_DISCARD] >= 2) {
+                take(g, GAME_DISCARD, GameDeck.OXYGEN_1_ID);
+                take(g, GAME_DISCARD, GameDeck.OXYGEN_1_ID);
+                push(g, GAME_DISCARD, GameDeck.OXYGEN_2_ID);
+            }
+            else {
+                if (!take(g, GAME_DECK, GameDeck.OXYGEN_1_ID)) return false;
+                if (!take(g, GAME_DISCARD, GameDeck.OXYGEN_1_ID)) return false;
+                push(g, GAME_DISCARD, GameDeck.OXYGEN_2_ID);
+            }
+            takeFromHand(player, GameDeck.OXYGEN_2_ID);
+            addToHand(player, GameDeck.OXYGEN_1_ID);
+        }
+        else {
+            takeFromHand(player, GameDeck.OXYGEN_1_ID);
+        }
+        push(g, GAME_DISCARD, GameDeck.OXYGEN_1_ID);
+
+        if (this.oxygen[player] == 0) {
+            kill(g, player);
+        }
+        return true;
+    }
+
+    /**
+     * discards a dead player's action cards, in the order their hand is sorted,
+     * and takes them out of the turn queue if they are waiting in it
+     * @param g game
+     * @param player player who ran out of oxygen
+     */
+    private void kill(int g, int player) {
+        int hand = player * this.kinds;
+        for (int id : this.actionsByRank) {
+            for (int i = this.hands[hand + id]; i > 0; i--) {
+                push(g, GAME_DISCARD, id);
+            }
+            this.hands[hand + id] = 0;
+        }
+        this.actionCount[player] = 0;
+
+        //the player whose turn it is has left the queue already, and is put back only if alive
+        int seat = player - g * this.players;
+        int base = g * this.players;
+        int size = this.queueSize[g];
+        for (int i = 0, at = this.queueHead[g]; i < size; i++, at = at + 1 == this.players ? 0 : at + 1) {
+            if (this.queue[base + at] != seat) continue;
+
+            for (int j = i + 1, from = at + 1 == this.players ? 0 : at + 1; j < size; j++) {
+                this.queue[base + at] = this.queue[base + from];
+                at = from;
+                from = from + 1 == this.players ? 0 : from + 1;
+            }
+            this.queueSize[g]--;
+            return;
+        }
+    }
+
+    /**
+     * puts a card into a player's hand
+     * @param player player
+     * @param id id of the card
+     */
+    private void addToHand(int player, int id) {
+        this.hands[player * this.kinds + id]++;
+        if (id == GameDeck.OXYGEN_1_ID || id == GameDeck.OXYGEN_2_ID) {
+            this.oxygenCount[player]++;
+            this.oxygen[player] += id == GameDeck.OXYGEN_2_ID ? 2 : 1;
+        }
+        else {
+            this.actionCount[player]++;
+        }
+    }
+
+    /**
+     * takes a card the player holds out of their hand
+     * @param player player
+     * @param id id of the card
+     */
+    private void takeFromHand(int player, int id) {
+        this.hands[player * this.kinds + id]--;
+        if (id == GameDeck.OXYGEN_1_ID || id == GameDeck.OXYGEN_2_ID) {
+            this.oxygenCount[player]--;
+            this.oxygen[player] -= id == GameDeck.OXYGEN_2_ID ? 2 : 1;
+        }
+        else {
+            this.actionCount[player]--;
+        }
+    }
+
+    /**
+     * reshuffles the discard pile into the game deck if the deck is empty and the pile is not
+     * @param g game
+     */
+    private void recycle(int g) {
+        if (this.deckSize[g * DECKS + GAME_DECK] == 0 && this.deckSize[g * DECKS + GAME_DISCARD] > 0) {
+            merge(g, GAME_DECK, GAME_DISCARD);
+        }
+    }
+
+    /**
+     * puts a card on top of a deck
+     * @param g game
+     * @param deck deck
+     * @param id id of the card
+     */
+    private void push(int g, int deck, int id) {
+        int at = g * DECKS + deck;
+        this.decks[g * this.stride + this.deckStart[deck] + this.deckSize[at]++] = (byte)id;
+        if (id == GameDeck.OXYGEN_1_ID) {
+            this.deckOxygen1[at]++;
+        }
+    }
+
+    /**
+     * takes the top card of a deck that is not empty
+     * @param g game
+     * @param deck deck
+     * @return id of the card
+     */
+    private int pop(int g, int deck) {
+        int at = g * DECKS + deck;
+        int id = this.decks[g * this.stride + this.deckStart[deck] + --this.deckSize[at]];
+        if (id == GameDeck.OXYGEN_1_ID) {
+            this.deckOxygen1[at]--;
+        }
+        return id;
+    }
+
+    /**
+     * takes the card of an id nearest the top of a deck, closing up the gap
+     * @param g game
+     * @param deck deck
+     * @param id id of the card
+     * @return false if the deck holds no such card
+     */
+    private boolean take(int g, int deck, int id) {
+        int at = g * DECKS + deck;
+        int bottom = g * this.stride + this.deckStart[deck];
+        int top = bottom + this.deckSize[at];
+        for (int i = top - 1; i >= bottom; i--) {
+            if (this.decks[i] == id) {
+                System.arraycopy(this.decks, i + 1, this.decks, i, top - i - 1);
+                this.deckSize[at]--;
+                if (id == GameDeck.OXYGEN_1_ID) {
+                    this.deckOxygen1[at]--;
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * puts a pile on top of a deck, keeping its order, and shuffles the deck, as GameEngine.mergeDecks does
+     * @param g game
+     * @param deck deck restocked
+     * @param pile deck emptied into it
+     */
+    private void merge(int g, int deck, int pile) {
+        int to = g * DECKS + deck;
+        int from = g * DECKS + pile;
+        int base = g * this.stride;
+        System.arraycopy(this.decks, base + this.deckStart[pile], this.decks,
+            base + this.deckStart[deck] + this.deckSize[to], this.deckSize[from]);
+        this.deckSize[to] += this.deckSize[from];
+        this.deckOxygen1[to] += this.deckOxygen1[from];
+        this.deckSize[from] = 0;
+        this.deckOxygen1[from] = 0;
+        shuffle(g, deck);
+    }
+
+    /**
+     * shuffles a deck with the game's randomizer, drawing the same numbers Deck.shuffle would
+     * @param g game
+     * @param deck deck
+     */
+    private void shuffle(int g, int deck) {
+        int bottom = g * this.stride + this.deckStart[deck];
+        for (int i = this.deckSize[g * DECKS + deck]; i > 1; i--) {
+            int j = bottom + nextInt(g, i);
+            byte card = this.decks[bottom + i - 1];
+            this.decks[bottom + i - 1] = this.decks[j];
+            this.decks[j] = card;
+        }
+    }
+
+    /**
+     * draws a number from the game's randomizer, as java.util.Random.nextInt does from GameRandom
+     * @param g game
+     * @param bound one past the highest number wanted
+     * @return number in [0, bound)
+     */
+    private int nextInt(int g, int bound) {
+        int r = next31(g);
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return (int)((bound * (long)r) >> 31);
+        }
+        for (int u = r; u - (r = u % bound) + m < 0; u = next31(g)) { }
+        return r;
+    }
+
+    /**
+     * draws 31 random bits from the game's randomizer, as GameRandom.next(31) does
+     * @param g game
+     * @return random bits
+     */
+    private int next31(int g) {
+        return (int)(GameRandom.mix64(this.randomState[g] += this.randomGamma[g]) >>> 33);
+    }
+
+    /**
+     * gives the nº of games in the batch
+     * @return nº of games
+     */
+    public int getGames() {
+        return this.games;
+    }
+
+    /**
+     * gives the nº of players in every game
+     * @return nº of players
+     */
+    public int getPlayers() {
+        return this.players;
+    }
+
+    /**
+     * tells whether a game has ended, with or without a winner, or failed
+     * @param g game
+     * @return boolean value
+     */
+    public boolean isOver(int g) {
+        return this.state[g] != PLAYING;
+    }
+
+    /**
+     * tells whether the rules could not play a game to the end
+     * @param g game
+     * @return boolean value
+     */
+    public boolean isFailed(int g) {
+        return this.state[g] == FAILED;
+    }
+
+    /**
+     * gives the seat of a game's winner
+     * @param g game
+     * @return seat, in the order players joined, or -1 if no one has won
+     */
+    public int getWinner(int g) {
+        return this.winner[g];
+    }
+
+    /**
+     * gives the nº of turns a game has played
+     * @param g game
+     * @return nº of turns
+     */
+    public int getTurns(int g) {
+        return this.turns[g];
+    }
+
+    /**
+     * gives the oxygen a player has left
+     * @param g game
+     * @param seat seat, in the order players joined
+     * @return nº of oxygen
+     */
+    public int getOxygen(int g, int seat) {
+        return this.oxygen[g * this.players + seat];
+    }
+
+    /**
+     * gives a player's distance from the ship
+     * @param g game
+     * @param seat seat, in the order players joined
+     * @return nº of spaces between the player and the ship
+     */
+    public int getDistance(int g, int seat) {
+        return SHIP - this.trackLength[g * this.players + seat];
+    }
+
+    /**
+     * gives the card on top of a player's track
+     * @param g game
+     * @param seat seat, in the order players joined
+     * @return id of the card, or -1 if the track is empty
+     */
+    public int getTrackTop(int g, int seat) {
+        return this.trackTop[g * this.players + seat];
+    }
+
+    /**
+     * gives the nº of cards of an id in a player's hand
+     * @param g game
+     * @param seat seat, in the order players joined
+     * @param id id of the card
+     * @return nº of cards
+     */
+    public int getHandCount(int g, int seat, int id) {
+        return id < this.kinds ? this.hands[(g * this.players + seat) * this.kinds + id] : 0;
+    }
+
+    /**
+     * gives the nº of cards in a player's hand
+     * @param g game
+     * @param seat seat, in the order players joined
+     * @return nº of cards
+     */
+    public int getHandSize(int g, int seat) {
+        int player = g * this.players + seat;
+        return this.actionCount[player] + this.oxygenCount[player];
+    }
+}
@@ -3,7 +3,8 @@ package selfish.deck;
 import java.io.Serializable;
 
 /**
- * creates the cards for the game
+ * creates the cards for the game, which are immutable so that every deck
+ * can share the same card of each kind (see {@link CardCatalog})
  * @author Sofia Hu
  * @version 1.0
  */
@@ -12,12 +13,17 @@ public class Card implements Comparable<Card>, Serializable {
     /**
      * name for the cards
      */
-    private String name;
+    private final String name;
 
     /**
      * descriptions for the cards
      */
-    private String description;
+    private final String description;
+
+    /**
+     * id of the kind of card, from the CardCatalog
+     */
+    private final int id;
 
     /**
      * unique ID for Cards, as it is serializable
@@ -30,8 +36,27 @@ public class Card implements Comparable<Card>, Serializable {
      * @param description describes the effects of the cards
      */
     public Card(String name, String description) {
+        this(name, description, CardCatalog.register(name));
+    }
+
+    /**
+     * creates an object for the cards with a known id
+     * @param name name for the card
+     * @param description describes the effects of the cards
+     * @param id id of the kind of card
+     */
+    protected Card(String name, String description, int id) {
         this.name = name;
         this.description = description;
+        this.id = id;
+    }
+
+    /**
+     * returns the id of the card's kind
+     * @return card id
+     */
+    public int getId() {
+        return this.id;
     }
 
     /**
@@ -56,12 +81,37 @@ public class Card implements Comparable<Card>, Serializable {
      * @return -1 if card is before o, 0 if it's the same and 1 if it's after
      */
     public int compareTo(Card o) {
-        if (this instanceof Oxygen && o instanceof Oxygen) {
-            return Integer.compare(((Oxygen)this).getValue(), ((Oxygen)o).getValue());
-        }
-        else {
-            return this.name.compareTo(o.name);
+        if (this.id == o.id) {
+            return 0;
         }
+        return Integer.compare(CardCatalog.rank(this.id), CardCatalog.rank(o.id));
+    }
+
+    /**
+     * cards are equal when they are the same kind of card
+     * @param o the object youre comparing yours to
+     * @return true if o is a card with the same id
+     */
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Card && ((Card)o).id == this.id;
+    }
+
+    /**
+     * hash code of the card, its id
+     * @return hash code
+     */
+    @Override
+    public int hashCode() {
+        return this.id;
+    }
+
+    /**
+     * swaps a deserialised card for the shared one, as ids are only fixed for the known cards
+     * @return shared card
+     */
+    private Object readResolve() {
+        return CardCatalog.card(this.name, this.description);
     }
 
 }
@@ -0,0 +1,216 @@
+package selfish.deck;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * keeps a small id for every kind of card and one shared card per kind,
+ * so decks hold references to the same few immutable cards
+ * @author sofia hu
+ * @version 1.0
+ */
+public final class CardCatalog {
+
+    /**
+     * ids of the card names, by name
+     */
+    private final static Map<String, Integer> IDS = new ConcurrentHashMap<>();
+
+    /**
+     * shared cards, by name and then by description
+     */
+    private final static Map<String, Map<String, Card>> CARDS = new ConcurrentHashMap<>();
+
+    /**
+     * names of the cards, by id
+     */
+    private static volatile String[] names = new String[0];
+
+    /**
+     * shared card of each id, the first one made with that name
+     */
+    private static volatile Card[] shared = new Card[0];
+
+    /**
+     * position of each id when cards are sorted, by id
+     */
+    private static volatile int[] ranks = new int[0];
+
+    /**
+     * ids in sorted order, by position
+     */
+    private static volatile int[] order = new int[0];
+
+    static {
+        String[] known = {
+            GameDeck.HACK_SUIT, GameDeck.HOLE_IN_SUIT, GameDeck.LASER_BLAST, GameDeck.OXYGEN_1,
+            GameDeck.OXYGEN_2, GameDeck.OXYGEN_SIPHON, GameDeck.ROCKET_BOOSTER, GameDeck.SHIELD,
+            GameDeck.TETHER, GameDeck.TRACTOR_BEAM, SpaceDeck.ASTEROID_FIELD, SpaceDeck.BLANK_SPACE,
+            SpaceDeck.COSMIC_RADIATION, SpaceDeck.GRAVITATIONAL_ANOMALY, SpaceDeck.HYPERSPACE,
+            SpaceDeck.METEOROID, SpaceDeck.MYSTERIOUS_NEBULA, SpaceDeck.SOLAR_FLARE,
+            SpaceDeck.USEFUL_JUNK, SpaceDeck.WORMHOLE
+        };
+        for (String name : known) {
+            register(name);
+        }
+        if (idOf(GameDeck.OXYGEN_1) != GameDeck.OXYGEN_1_ID || idOf(SpaceDeck.WORMHOLE) != SpaceDeck.WORMHOLE_ID) {
+            throw new ExceptionInInitializerError("card ids are out of order");
+        }
+        shared[GameDeck.OXYGEN_1_ID] = new Oxygen(1);
+        shared[GameDeck.OXYGEN_2_ID] = new Oxygen(2);
+    }
+
+    private CardCatalog() { }
+
+    /**
+     * gives the id of a card name, giving the name a new id if it has none
+     * @param name name of the card
+     * @return id of the card
+     */
+    public static int register(String name) {
+        Integer id = IDS.get(name);
+        if (id != null) {
+            return id;
+        }
+
+        synchronized (CardCatalog.class) {
+            id = IDS.get(name);
+            if (id != null) {
+                return id;
+            }
+
+            int newId = names.length;
+            String[] newNames = Arrays.copyOf(names, newId + 1);
+            newNames[newId] = name;
+            shared = Arrays.copyOf(shared, newId + 1);
+            int[] newRanks = rank(newNames);
+            int[] newOrder = new int[newRanks.length];
+            for (int i = 0; i < newRanks.length; i++) {
+                newOrder[newRanks[i]] = i;
+            }
+            order = newOrder;
+            ranks = newRanks;
+            names = newNames;
+            IDS.put(name, newId);
+            return newId;
+        }
+    }
+
+    /**
+     * gives the id of a card name
+     * @param name name of the card
+     * @return id of the card, or -1 if no card has that name
+     */
+    public static int idOf(String name) {
+        if (name == null) return -1;
+
+        Integer id = IDS.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * gives the name of a card id
+     * @param id id of the card
+     * @return name of the card
+     */
+    public static String nameOf(int id) {
+        return names[id];
+    }
+
+    /**
+     * gives the nº of ids handed out so far
+     * @return nº of ids
+     */
+    public static int size() {
+        return names.length;
+    }
+
+    /**
+     * gives the position of an id when cards are sorted, as Card.compareTo orders them
+     * @param id id of the card
+     * @return position of the id
+     */
+    public static int rank(int id) {
+        return ranks[id];
+    }
+
+    /**
+     * gives the id at a position when cards are sorted, the opposite of rank
+     * @param rank position in sorted order
+     * @return id at that position
+     */
+    public static int byRank(int rank) {
+        return order[rank];
+    }
+
+    /**
+     * gives the shared card of an id
+     * @param id id of the card
+     * @return shared card, or null if none has been made yet
+     */
+    public static Card card(int id) {
+        Card[] cards = shared;
+        return id < cards.length ? cards[id] : null;
+    }
+
+    /**
+     * gives the shared card with a name and description, making it the first time;
+     * looking up a card already made allocates nothing. A missing description
+     * counts as an empty one
+     * @param name name of the card
+     * @param description description of the card
+     * @return shared card
+     */
+    public static Card card(String name, String description) {
+        String key = description == null ? "" : description;
+        Map<String, Card> described = CARDS.get(name);
+        Card card = described == null ? null : described.get(key);
+        if (card != null) {
+            return card;
+        }
+
+        synchronized (CardCatalog.class) {
+            card = CARDS.computeIfAbsent(name, newName -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, newKey -> new Card(name, description));
+            if (shared[card.getId()] == null) {
+                shared[card.getId()] = card;
+            }
+            return card;
+        }
+    }
+
+    /**
+     * works out the sorted position of every id: by name, except that oxygens
+     * sort as "Oxygen", lower value first
+     * @param names names of the cards, by id
+     * @return position of each id
+     */
+    private static int[] rank(String[] names) {
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer id) -> sortName(names, id)).thenComparing(id -> id));
+
+        int[] newRanks = new int[names.length];
+        for (int i = 0; i < order.length; i++) {
+            newRanks[order[i]] = i;
+        }
+        return newRanks;
+    }
+
+    /**
+     * gives the name an id sorts by
+     * @param names names of the cards, by id
+     * @param id id of the card
+     * @return name to sort by
+     */
+    private static String sortName(String[] names, int id) {
+        if (id == GameDeck.OXYGEN_1_ID || id == GameDeck.OXYGEN_2_ID) {
+            return GameDeck.OXYGEN;
+        }
+        return names[id];
+    }
+}
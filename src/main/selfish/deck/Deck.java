@@ -1,15 +1,17 @@
 package selfish.deck;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 import java.io.Serializable;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.util.Scanner;
+import selfish.EngineMetrics;
 import selfish.GameException;
-import java.util.Collection;
-import java.util.Collections;
 
 /**
  * creates the deck of cards for the game
@@ -18,61 +20,70 @@ import java.util.Collections;
  */
 public abstract class Deck implements Serializable {
     /**
-     * collection of cards
+     * cards in the Deck, the top of the Deck being the last one in use
+     */
+    private Card[] cards;
+
+    /**
+     * nº of slots in use, including the holes left by take
+     */
+    private int top;
+
+    /**
+     * nº of empty slots below the top
      */
-    private Collection<Card> cards;
+    private int holes;
 
     /**
      * unique ID for the Deck
      */
     private final static long serialVersionUID = 1l;
+
+    /**
+     * serialised form of the Deck, its cards as a list from the bottom to the top,
+     * as they were kept before the array, so older saves still load
+     */
+    private final static ObjectStreamField[] serialPersistentFields = {
+        new ObjectStreamField("cards", Collection.class)
+    };
     
     /**
      * creates a Deck
      */
     protected Deck() {
-        this.cards = new ArrayList<>();
+        this.cards = new Card[16];
+    }
+
+    /**
+     * creates a copy of a Deck, with its cards in the same order
+     * @param other Deck to copy
+     */
+    protected Deck(Deck other) {
+        this.cards = Arrays.copyOf(other.cards, other.cards.length);
+        this.top = other.top;
+        this.holes = other.holes;
     }
 
     /**
-     * creates a list for the cards
+     * creates a list for the cards; the file is only read the first time
+     * and again when it changes
      * @throws GameException when there is an error in reading the file
      * @param path file path to the list of cards
      * @return the file as a list of cards
      */
     protected static List<Card> loadCards(String path) throws GameException {
-        List<Card> loadedCards = new ArrayList<>();
-        try {
-            File cardsFile = new File(path);
-            Scanner cardsFileReader = new Scanner(cardsFile);
-            cardsFileReader.nextLine();
-            while (cardsFileReader.hasNextLine()) {
-                String cardData = cardsFileReader.nextLine();
-                loadedCards.addAll(Arrays.asList(stringToCards(cardData)));
-            }
-            cardsFileReader.close();
-        } 
-
-        catch (FileNotFoundException e) {
-            throw new GameException("There was an error when handling the file", e);
-        }
-
-        return loadedCards;
+        return new ArrayList<>(Arrays.asList(DeckTemplate.cards(path)));
     }
 
     /**
-     * creates an array for the cards
-     * @param str each of the card types
-     * @return array of cards
+     * fills the Deck with the cards listed in a file; the file is only read the
+     * first time and again when it changes
+     * @throws GameException when there is an error in reading the file
+     * @param path file path to the list of cards
+     * @return number of cards in the collection
      */
-    protected static Card[] stringToCards(String str) {
-        String[] cardTypes = str.split("; ");
-        int quantity = Integer.parseInt(cardTypes[2]);
-        Card[] cards = new Card[quantity];
-        for (int i = 0; i < quantity; i++) {
-            cards[i] = new Card(cardTypes[0], cardTypes[1]);
-        }
-        return cards;
+    protected int addFromFile(String path) throws GameException {
+        return add(DeckTemplate.cards(path));
     }
 
     /**
@@ -81,8 +92,12 @@ public abstract class Deck implements Serializable {
      * @return number of cards in the collection
      */
     public int add(Card card) {
-        this.cards.add(card);
-        return this.cards.size();
+        if (this.top == this.cards.length) {
+            grow(this.top + 1);
+        }
+        this.cards[this.top] = card;
+        cardAdded(card, this.top++);
+        return size();
     }
 
     /**
@@ -91,8 +106,227 @@ public abstract class Deck implements Serializable {
      * @return number of cards in the collection
      */
     protected int add(List<Card> cards) {
-        this.cards.addAll(cards);
-        return this.cards.size();
+        if (this.top + cards.size() > this.cards.length) {
+            grow(this.top + cards.size());
+        }
+        for (Card card : cards) {
+            this.cards[this.top] = card;
+            cardAdded(card, this.top++);
+        }
+        return size();
+    }
+
+    /**
+     * adds an array of cards to the collection of cards in the Deck
+     * @param cards chosen cards, the last one going on top
+     * @return number of cards in the collection
+     */
+    protected int add(Card[] cards) {
+        if (this.top + cards.length > this.cards.length) {
+            grow(this.top + cards.length);
+        }
+        System.arraycopy(cards, 0, this.cards, this.top, cards.length);
+        for (Card card : cards) {
+            cardAdded(card, this.top++);
+        }
+        return size();
+    }
+
+    /**
+     * moves every card of another Deck onto the top of this one in a single copy,
+     * keeping their order, and leaves the other Deck empty with its slots cleared;
+     * each Deck is told once that its cards have moved, rather than card by card
+     * @param other Deck whose cards are moved
+     * @return number of cards in the collection
+     */
+    public int addAll(Deck other) {
+        if (other == this) throw new IllegalArgumentException();
+
+        other.compact();
+        int moved = other.top;
+        if (this.top + moved > this.cards.length) {
+            grow(this.top + moved);
+        }
+        System.arraycopy(other.cards, 0, this.cards, this.top, moved);
+        this.top += moved;
+        cardsMoved();
+
+        Arrays.fill(other.cards, 0, moved, null);
+        other.top = 0;
+        other.cardsMoved();
+        return size();
+    }
+
+    /**
+     * makes this Deck hold the same cards as another, in the same order, reusing
+     * its own slots when there are enough of them
+     * @param other Deck to copy, or null to empty this one
+     */
+    public void copyFrom(Deck other) {
+        if (other == this) return;
+
+        int top = other == null ? 0 : other.top;
+        if (top > this.cards.length) {
+            grow(top);
+        }
+        if (top > 0) {
+            System.arraycopy(other.cards, 0, this.cards, 0, top);
+        }
+        Arrays.fill(this.cards, top, Math.max(top, this.top), null);
+        this.top = top;
+        this.holes = other == null ? 0 : other.holes;
+        cardsMoved();
+    }
+
+    /**
+     * writes the cards out as a list, from the bottom to the top
+     * @param out stream to write to
+     * @throws IOException when the stream cannot be written
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("cards", new ArrayList<>(Arrays.asList(getCards())));
+        out.writeFields();
+    }
+
+    /**
+     * reads the list of cards back into the array
+     * @param in stream to read from
+     * @throws IOException when the stream cannot be read or holds no cards
+     * @throws ClassNotFoundException when a class in the stream cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        Object saved = in.readFields().get("cards", null);
+        if (!(saved instanceof Collection)) throw new InvalidObjectException("Deck without cards");
+
+        Collection<?> cards = (Collection<?>)saved;
+        this.cards = new Card[Math.max(16, cards.size())];
+        for (Object card : cards) {
+            if (!(card instanceof Card)) throw new InvalidObjectException("Deck holding " + card);
+            this.cards[this.top++] = (Card)card;
+        }
+    }
+
+    /**
+     * gives a copy of the cards in the Deck, from the bottom to the top
+     * @return cards in the Deck
+     */
+    public Card[] getCards() {
+        Card[] inDeck = new Card[size()];
+        int filled = 0;
+        for (int i = 0; i < this.top; i++) {
+            if (this.cards[i] != null) {
+                inDeck[filled++] = this.cards[i];
+            }
+        }
+        return inDeck;
+    }
+
+    /**
+     * adds the nº of cards of each id in the Deck to an array the caller keeps,
+     * so counting allocates nothing; ids past the end of the array are left out
+     * @param counts nº of cards, indexed by id
+     */
+    public void tally(int[] counts) {
+        for (int i = 0; i < this.top; i++) {
+            Card card = this.cards[i];
+            if (card != null && card.getId() < counts.length) {
+                counts[card.getId()]++;
+            }
+        }
+    }
+
+    /**
+     * gives the card in a slot of the Deck, 0 being the bottom
+     * @param index slot of the card
+     * @return card in that slot, or null if the slot is a hole
+     */
+    protected Card cardAt(int index) {
+        if (index < 0 || index >= this.top) throw new IndexOutOfBoundsException(index);
+        return this.cards[index];
+    }
+
+    /**
+     * gives the nº of slots in use, holes included
+     * @return nº of slots
+     */
+    protected int slots() {
+        return this.top;
+    }
+
+    /**
+     * takes the card out of a slot, leaving a hole unless it was the top card
+     * @param index slot of the card
+     * @return card taken
+     */
+    protected Card take(int index) {
+        Card card = cardAt(index);
+        if (card == null) throw new IllegalStateException();
+
+        this.cards[index] = null;
+        if (index == this.top - 1) {
+            this.top--;
+            dropHoles();
+        }
+        else {
+            this.holes++;
+        }
+        cardRemoved(card, index);
+        return card;
+    }
+
+    /**
+     * called after a card is put into a slot
+     * @param card card added
+     * @param index slot it went into
+     */
+    protected void cardAdded(Card card, int index) { }
+
+    /**
+     * called after a card is taken out of a slot
+     * @param card card removed
+     * @param index slot it came from
+     */
+    protected void cardRemoved(Card card, int index) { }
+
+    /**
+     * called after the cards have changed slots
+     */
+    protected void cardsMoved() { }
+
+    /**
+     * makes room for at least the given nº of cards
+     * @param capacity nº of cards the Deck must be able to hold
+     */
+    private void grow(int capacity) {
+        this.cards = Arrays.copyOf(this.cards, Math.max(capacity, this.cards.length * 2));
+    }
+
+    /**
+     * lowers the top past any holes so the top slot holds a card
+     */
+    private void dropHoles() {
+        while (this.top > 0 && this.cards[this.top - 1] == null) {
+            this.top--;
+            this.holes--;
+        }
+    }
+
+    /**
+     * closes up the holes, keeping the cards in order
+     */
+    private void compact() {
+        if (this.holes == 0) return;
+
+        int filled = 0;
+        for (int i = 0; i < this.top; i++) {
+            if (this.cards[i] != null) {
+                this.cards[filled++] = this.cards[i];
+            }
+        }
+        Arrays.fill(this.cards, filled, this.top, null);
+        this.top = filled;
+        this.holes = 0;
     }
 
     /**
@@ -100,12 +334,13 @@ public abstract class Deck implements Serializable {
      * @return the card drawn
      */
     public Card draw() {
-        if (this.cards.size() == 0) throw new IllegalStateException();
+        if (this.top == 0) {
+            EngineMetrics.count(EngineMetrics.Counter.EMPTY_DRAWS);
+            throw new IllegalStateException();
+        }
+        EngineMetrics.count(EngineMetrics.Counter.DRAWS);
 
-        List<Card> cardList = new ArrayList<>(this.cards);
-        Card cardRemoved = cardList.get(cardList.size()-1);
-        this.cards.remove(cardRemoved);
-        return cardRemoved;
+        return take(this.top - 1);
     }
 
     /**
@@ -113,7 +348,12 @@ public abstract class Deck implements Serializable {
      * @param card card chosen to be removed
      */
     public void remove(Card card) {
-        this.cards.remove(card);
+        for (int i = 0; i < this.top; i++) {
+            if (this.cards[i] != null && this.cards[i].equals(card)) {
+                take(i);
+                return;
+            }
+        }
     }
 
     /**
@@ -121,7 +361,15 @@ public abstract class Deck implements Serializable {
      * @param random type of randomizer we use to shuffle
      */
     public void shuffle(Random random) {
-        Collections.shuffle((List<Card>)this.cards, random);
+        compact();
+        //Fisher-Yates over the array itself, drawing the same numbers Collections.shuffle would
+        for (int i = this.top; i > 1; i--) {
+            int j = random.nextInt(i);
+            Card card = this.cards[i - 1];
+            this.cards[i - 1] = this.cards[j];
+            this.cards[j] = card;
+        }
+        cardsMoved();
     }
 
     /**
@@ -129,6 +377,6 @@ public abstract class Deck implements Serializable {
      * @return size of the Deck
      */
     public int size() {
-        return this.cards.size();
+        return this.top - this.holes;
     }
 }
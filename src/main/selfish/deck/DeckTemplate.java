@@ -0,0 +1,124 @@
+package selfish.deck;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import selfish.GameException;
+
+/**
+ * the cards listed in a card file, parsed once and kept until the file changes,
+ * so new decks are filled by copying them instead of reading the file again
+ * @author sofia hu
+ * @version 1.0
+ */
+final class DeckTemplate {
+
+    /**
+     * templates read so far, by absolute path
+     */
+    private final static Map<Path, DeckTemplate> CACHE = new ConcurrentHashMap<>();
+
+    /**
+     * cards in the file, in file order
+     */
+    private final Card[] cards;
+
+    /**
+     * time the file was last modified when it was read
+     */
+    private final long modified;
+
+    /**
+     * size of the file when it was read
+     */
+    private final long size;
+
+    /**
+     * creates a template
+     * @param cards cards in the file
+     * @param modified time the file was last modified
+     * @param size size of the file
+     */
+    private DeckTemplate(Card[] cards, long modified, long size) {
+        this.cards = cards;
+        this.modified = modified;
+        this.size = size;
+    }
+
+    /**
+     * gives the cards listed in a file, reading it only if it has not been read
+     * before or has changed since
+     * @param path file path to the list of cards
+     * @return cards in the file, in file order; shared, so they must not be changed
+     * @throws GameException when there is an error in reading the file
+     */
+    static Card[] cards(String path) throws GameException {
+        try {
+            Path file = Paths.get(path).toAbsolutePath().normalize();
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long modified = attributes.lastModifiedTime().toMillis();
+
+            DeckTemplate template = CACHE.get(file);
+            if (template == null || template.modified != modified || template.size != attributes.size()) {
+                template = new DeckTemplate(parse(Files.readAllBytes(file)), modified, attributes.size());
+                CACHE.put(file, template);
+            }
+            return template.cards;
+        }
+
+        catch (IOException | RuntimeException ex) {
+            throw new GameException("There was an error when handling the file", ex);
+        }
+    }
+
+    /**
+     * parses a card file: a header line, then one "name; description; quantity"
+     * line per kind of card
+     * @param bytes contents of the file
+     * @return cards listed, in file order
+     * @throws IllegalArgumentException when a line is not in that form
+     */
+    private static Card[] parse(byte[] bytes) {
+        String text = new String(bytes, StandardCharsets.UTF_8);
+        List<Card> cards = new ArrayList<>();
+
+        int line = text.indexOf('\n') + 1;
+        if (line == 0) line = text.length();
+        while (line < text.length()) {
+            int end = text.indexOf('\n', line);
+            if (end < 0) end = text.length();
+            int last = end > line && text.charAt(end - 1) == '\r' ? end - 1 : end;
+
+            if (last > line) {
+                int nameEnd = text.indexOf("; ", line);
+                int quantityStart = text.lastIndexOf("; ", last - 1);
+                if (nameEnd < 0 || nameEnd >= last || quantityStart <= nameEnd || quantityStart + 2 == last) {
+                    throw new IllegalArgumentException("Bad card line: " + text.substring(line, last));
+                }
+
+                Card card = CardCatalog.card(text.substring(line, nameEnd), text.substring(nameEnd + 2, quantityStart));
+                int quantity = 0;
+                for (int i = quantityStart + 2; i < last; i++) {
+                    char digit = text.charAt(i);
+                    if (digit < '0' || digit > '9') {
+                        throw new IllegalArgumentException("Bad card quantity: " + text.substring(line, last));
+                    }
+                    quantity = quantity * 10 + (digit - '0');
+                }
+                for (int i = 0; i < quantity; i++) {
+                    cards.add(card);
+                }
+            }
+            line = end + 1;
+        }
+
+        return cards.toArray(new Card[0]);
+    }
+}
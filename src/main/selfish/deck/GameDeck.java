@@ -1,7 +1,8 @@
 package selfish.deck;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
 
 import selfish.GameException;
 
@@ -17,15 +18,30 @@ public class GameDeck extends Deck {
      */
     public final static String HACK_SUIT = "Hack suit";
 
+    /**
+     * card id for Hack suit
+     */
+    public final static int HACK_SUIT_ID = 0;
+
     /**
      * identifier for Hole in suit
      */
     public final static String HOLE_IN_SUIT = "Hole in suit";
 
+    /**
+     * card id for Hole in suit
+     */
+    public final static int HOLE_IN_SUIT_ID = 1;
+
     /**
      * identifier for Laser blast
      */
     public final static String LASER_BLAST = "Laser blast";
+
+    /**
+     * card id for Laser blast
+     */
+    public final static int LASER_BLAST_ID = 2;
     
     /**
      * identifier for Oxygen
@@ -37,41 +53,96 @@ public class GameDeck extends Deck {
      */
     public final static String OXYGEN_1 = "Oxygen(1)";
 
+    /**
+     * card id for Oxygen(1)
+     */
+    public final static int OXYGEN_1_ID = 3;
+
     /**
      * identifier for Oxygen(2) 
      */
     public final static String OXYGEN_2 = "Oxygen(2)";
 
+    /**
+     * card id for Oxygen(2)
+     */
+    public final static int OXYGEN_2_ID = 4;
+
     /**
      * identifier for Oxygen siphon  
      */
     public final static String OXYGEN_SIPHON = "Oxygen siphon";
 
+    /**
+     * card id for Oxygen siphon
+     */
+    public final static int OXYGEN_SIPHON_ID = 5;
+
     /**
      * identifier for Rocket booster
      */
     public final static String ROCKET_BOOSTER = "Rocket booster";
 
+    /**
+     * card id for Rocket booster
+     */
+    public final static int ROCKET_BOOSTER_ID = 6;
+
     /**
      * identifier for Shield
      */
     public final static String SHIELD = "Shield";
 
+    /**
+     * card id for Shield
+     */
+    public final static int SHIELD_ID = 7;
+
     /**
      * identifier for Tether 
      */
     public final static String TETHER = "Tether";
 
+    /**
+     * card id for Tether
+     */
+    public final static int TETHER_ID = 8;
+
     /**
      * identifier for Tractor beam 
      */
     public final static String TRACTOR_BEAM = "Tractor beam";
 
+    /**
+     * card id for Tractor beam
+     */
+    public final static int TRACTOR_BEAM_ID = 9;
+
     /**
      * unique ID for GameDeck
      */
     private final static long serialVersionUID = 2l;
 
+    /**
+     * slots of the oxygen(1)s in the deck, lowest first
+     */
+    private transient int[] oxygen1Slots = new int[16];
+
+    /**
+     * nº of oxygen(1)s in the deck
+     */
+    private transient int oxygen1Count;
+
+    /**
+     * slots of the oxygen(2)s in the deck, lowest first
+     */
+    private transient int[] oxygen2Slots = new int[16];
+
+    /**
+     * nº of oxygen(2)s in the deck
+     */
+    private transient int oxygen2Count;
+
     /**
      * creates GameDeck
      */
@@ -79,20 +150,30 @@ public class GameDeck extends Deck {
         super();
     }
 
+    /**
+     * creates a copy of a GameDeck
+     * @param other GameDeck to copy
+     */
+    public GameDeck(GameDeck other) {
+        super(other);
+        this.oxygen1Slots = other.oxygen1Slots.clone();
+        this.oxygen1Count = other.oxygen1Count;
+        this.oxygen2Slots = other.oxygen2Slots.clone();
+        this.oxygen2Count = other.oxygen2Count;
+    }
+
     /**
      * creates GameDeck with filepath
      * @throws GameException when there is an error in reading the file
      * @param path points towards the file containing the action cards
      */
     public GameDeck(String path) throws GameException {
-        super.add(loadCards(path));
+        addFromFile(path);
         for (int i = 0; i < 10; i++) {
-            Oxygen oxygen_2 = new Oxygen(2);
-            add(oxygen_2);
+            add(CardCatalog.card(OXYGEN_2_ID));
         }
         for (int i = 0; i < 38; i++) {
-            Oxygen oxygen_1 = new Oxygen(1);
-            add(oxygen_1);
+            add(CardCatalog.card(OXYGEN_1_ID));
         }
     }
 
@@ -102,21 +183,107 @@ public class GameDeck extends Deck {
      * @return drawn oxygen
      */
     public Oxygen drawOxygen(int value) {
-        int deckSize = size();
-        List<Card> cardsDrawn = new ArrayList<>();
-        for (int i = 0; i < deckSize; i++){
-            Card possibleOxygen = draw();
-            if (possibleOxygen instanceof Oxygen) {
-                if (possibleOxygen.compareTo(new Oxygen(value)) == 0) {
-                    add(cardsDrawn);
-                    return ((Oxygen)possibleOxygen);
-                }
+        int count = oxygenCount(value);
+        if (count == 0) throw new IllegalStateException();
+
+        //the highest slot holds the oxygen nearest the top of the deck
+        int[] slots = value == 1 ? this.oxygen1Slots : this.oxygen2Slots;
+        return (Oxygen)take(slots[count - 1]);
+    }
+
+    /**
+     * counts the oxygens of one value in the deck
+     * @param value oxygen's value, can be 1 or 2
+     * @return nº of oxygens with that value
+     */
+    public int oxygenCount(int value) {
+        if (value == 1) {
+            return this.oxygen1Count;
+        }
+        if (value == 2) {
+            return this.oxygen2Count;
+        }
+        return 0;
+    }
+
+    /**
+     * records the slot of an oxygen added to the top of the deck
+     * @param card card added
+     * @param index slot it went into
+     */
+    @Override
+    protected void cardAdded(Card card, int index) {
+        if (card.getId() == OXYGEN_1_ID) {
+            if (this.oxygen1Count == this.oxygen1Slots.length) {
+                this.oxygen1Slots = Arrays.copyOf(this.oxygen1Slots, this.oxygen1Count * 2);
             }
-        
-        cardsDrawn.add(possibleOxygen);
+            this.oxygen1Slots[this.oxygen1Count++] = index;
         }
+        else if (card.getId() == OXYGEN_2_ID) {
+            if (this.oxygen2Count == this.oxygen2Slots.length) {
+                this.oxygen2Slots = Arrays.copyOf(this.oxygen2Slots, this.oxygen2Count * 2);
+            }
+            this.oxygen2Slots[this.oxygen2Count++] = index;
+        }
+    }
 
-        add(cardsDrawn);
+    /**
+     * forgets the slot of an oxygen taken out of the deck
+     * @param card card removed
+     * @param index slot it came from
+     */
+    @Override
+    protected void cardRemoved(Card card, int index) {
+        if (card.getId() == OXYGEN_1_ID) {
+            this.oxygen1Count = forget(this.oxygen1Slots, this.oxygen1Count, index);
+        }
+        else if (card.getId() == OXYGEN_2_ID) {
+            this.oxygen2Count = forget(this.oxygen2Slots, this.oxygen2Count, index);
+        }
+    }
+
+    /**
+     * finds the slots of every oxygen again after the cards have moved
+     */
+    @Override
+    protected void cardsMoved() {
+        this.oxygen1Count = 0;
+        this.oxygen2Count = 0;
+        for (int i = 0; i < slots(); i++) {
+            Card card = cardAt(i);
+            if (card != null) {
+                cardAdded(card, i);
+            }
+        }
+    }
+
+    /**
+     * finds the slots of the oxygens of a deserialised deck, which are not saved
+     * @param in stream to read from
+     * @throws IOException when the stream cannot be read
+     * @throws ClassNotFoundException when a class in the stream cannot be found
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        this.oxygen1Slots = new int[16];
+        this.oxygen2Slots = new int[16];
+        cardsMoved();
+    }
+
+    /**
+     * removes a slot from a list of slots, which is usually its last entry
+     * @param slots list of slots, lowest first
+     * @param count nº of entries in use
+     * @param index slot to remove
+     * @return nº of entries left
+     */
+    private static int forget(int[] slots, int count, int index) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (slots[i] == index) {
+                System.arraycopy(slots, i + 1, slots, i, count - i - 1);
+                return count - 1;
+            }
+        }
         throw new IllegalStateException();
     }
 
@@ -126,13 +293,22 @@ public class GameDeck extends Deck {
      * @return returns an array with the split oxygen
      */
     public Oxygen[] splitOxygen(Oxygen dbl) {
+        return splitOxygen(dbl, new Oxygen[2]);
+    }
+
+    /**
+     * splits the oxygen into an array the caller keeps, so splitting allocates nothing
+     * @param dbl oxygen with value 2
+     * @param split array of at least 2 the split oxygen is put in
+     * @return the array given, with the split oxygen
+     */
+    public Oxygen[] splitOxygen(Oxygen dbl, Oxygen[] split) {
         if (dbl.getValue() != 2) throw new IllegalArgumentException();
-        
-        Oxygen[] splitOxygens = new Oxygen[2];
-        splitOxygens[1] = this.drawOxygen(1);
-        splitOxygens[0] = this.drawOxygen(1);
-        if (splitOxygens[0] == null || splitOxygens[1] == null) throw new IllegalStateException();
+        if (this.oxygen1Count < 2) throw new IllegalStateException();
+
+        split[1] = this.drawOxygen(1);
+        split[0] = this.drawOxygen(1);
         this.add(dbl);
-        return splitOxygens;
+        return split;
     }
 }
@@ -10,7 +10,7 @@ public class Oxygen extends Card {
     /**
      * holds the value of the oxygen
      */
-    private int value;
+    private final int value;
 
     /**
      * unique ID for Oxygen
@@ -22,7 +22,7 @@ public class Oxygen extends Card {
      * @param value possible values that oxygen can be
      */
     public Oxygen(int value) {
-        super(GameDeck.OXYGEN, GameDeck.OXYGEN);
+        super(GameDeck.OXYGEN, GameDeck.OXYGEN, value == 1 ? GameDeck.OXYGEN_1_ID : GameDeck.OXYGEN_2_ID);
         this.value = value;
     }
 
@@ -46,4 +46,13 @@ public class Oxygen extends Card {
             return GameDeck.OXYGEN_2;
         }
     }
+
+    /**
+     * swaps a deserialised oxygen for the shared one, by its value as saves from
+     * before cards had ids hold none
+     * @return shared oxygen
+     */
+    private Object readResolve() {
+        return CardCatalog.card(this.value == 1 ? GameDeck.OXYGEN_1_ID : GameDeck.OXYGEN_2_ID);
+    }
 }
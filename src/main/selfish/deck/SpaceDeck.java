@@ -14,51 +14,101 @@ public class SpaceDeck extends Deck {
      */
     public final static String ASTEROID_FIELD = "Asteroid field";
 
+    /**
+     * card id for Asteroid field
+     */
+    public final static int ASTEROID_FIELD_ID = 10;
+
     /**
      * identifier for Blank space 
      */
     public final static String BLANK_SPACE = "Blank space";
 
+    /**
+     * card id for Blank space
+     */
+    public final static int BLANK_SPACE_ID = 11;
+
     /**
      * identifier for Cosmic radiation
      */
     public final static String COSMIC_RADIATION = "Cosmic radiation";
 
+    /**
+     * card id for Cosmic radiation
+     */
+    public final static int COSMIC_RADIATION_ID = 12;
+
     /**
      * identifier for Gravitational anomaly
      */
     public final static String GRAVITATIONAL_ANOMALY = "Gravitational anomaly";
 
+    /**
+     * card id for Gravitational anomaly
+     */
+    public final static int GRAVITATIONAL_ANOMALY_ID = 13;
+
     /**
      * identifier for Hyperspace
      */
     public final static String HYPERSPACE = "Hyperspace";
 
+    /**
+     * card id for Hyperspace
+     */
+    public final static int HYPERSPACE_ID = 14;
+
     /**
      * identifier for Meteroid
      */
     public final static String METEOROID = "Meteoroid";
 
+    /**
+     * card id for Meteroid
+     */
+    public final static int METEOROID_ID = 15;
+
     /**
      * identifier for Mysterious nebula
      */
     public final static String MYSTERIOUS_NEBULA = "Mysterious nebula";
 
+    /**
+     * card id for Mysterious nebula
+     */
+    public final static int MYSTERIOUS_NEBULA_ID = 16;
+
     /**
      * identifier for Solar flare
      */
     public final static String SOLAR_FLARE = "Solar flare";
 
+    /**
+     * card id for Solar flare
+     */
+    public final static int SOLAR_FLARE_ID = 17;
+
     /**
      * identifier for Useful junk
      */
     public final static String USEFUL_JUNK = "Useful junk";
 
+    /**
+     * card id for Useful junk
+     */
+    public final static int USEFUL_JUNK_ID = 18;
+
     /**
      * identifier for Wormhole
      */
     public final static String WORMHOLE = "Wormhole";
 
+    /**
+     * card id for Wormhole
+     */
+    public final static int WORMHOLE_ID = 19;
+
     /**
      * unique ID for SpaceDeck
      */
@@ -71,12 +121,20 @@ public class SpaceDeck extends Deck {
         super();
     }
 
+    /**
+     * creates a copy of a space deck
+     * @param other space deck to copy
+     */
+    public SpaceDeck(SpaceDeck other) {
+        super(other);
+    }
+
     /**
      * creates space deck with filepath
      * @throws GameException when there is an error in reading the file
      * @param path pointer towards the file that contains the cards in space deck
      */
     public SpaceDeck(String path) throws GameException {
-        super.add(loadCards(path));
+        addFromFile(path);
     }
 }
@@ -0,0 +1,328 @@
+package selfish.server;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import selfish.GameException;
+
+/**
+ * client that fills a session server with games and plays them from many
+ * connections at once, to measure the memory a game takes and the nº of
+ * commands the server handles per second
+ * @author sofia hu
+ * @version 1.0
+ */
+public class LoadGenerator {
+
+    /**
+     * host the server runs on
+     */
+    private final String host;
+
+    /**
+     * port the server listens on
+     */
+    private final int port;
+
+    /**
+     * creates a load generator
+     * @param host host the server runs on
+     * @param port port the server listens on
+     */
+    public LoadGenerator(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * creates the games, spread over the connections, then plays turns in all of
+     * them for a while; a game that ends is closed and replaced by a new one
+     * @param games nº of games to keep going at once
+     * @param connections nº of connections playing them
+     * @param players nº of players in each game, between 2 and 5
+     * @param millis how long to play for
+     * @return measurements
+     * @throws GameException when the server cannot be reached or the run is interrupted
+     */
+    public Result run(int games, int connections, int players, long millis) throws GameException {
+        if (games < 1 || connections < 1 || players < 2 || players > 5) throw new IllegalArgumentException();
+        connections = Math.min(connections, games);
+
+        Result result = new Result();
+        result.games = games;
+        ExecutorService threads = Threads.perTask();
+        List<Client> clients = new ArrayList<>();
+        try (Client control = new Client()) {
+            result.heapBefore = heap(control.send("STATS GC"));
+
+            for (int c = 0; c < connections; c++) {
+                clients.add(new Client());
+            }
+            List<Future<long[]>> setups = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                Client client = clients.get(c);
+                int count = games / connections + (c < games % connections ? 1 : 0);
+                long firstSeed = (long)c * games;
+                setups.add(threads.submit(() -> {
+                    long[] ids = new long[count];
+                    for (int g = 0; g < count; g++) {
+                        ids[g] = client.newGame(firstSeed + g, players);
+                    }
+                    return ids;
+                }));
+            }
+            List<long[]> ids = new ArrayList<>();
+            for (Future<long[]> setup : setups) {
+                ids.add(setup.get());
+            }
+            result.heapAfter = heap(control.send("STATS GC"));
+
+            long start = System.nanoTime();
+            long end = start + millis * 1_000_000;
+            List<Future<Long>> playing = new ArrayList<>();
+            for (int c = 0; c < connections; c++) {
+                Client client = clients.get(c);
+                long[] own = ids.get(c);
+                long firstSeed = (long)(connections + c) * games;
+                playing.add(threads.submit(() -> client.play(own, firstSeed, players, end)));
+            }
+            for (Future<Long> commands : playing) {
+                result.commands += commands.get();
+            }
+            result.nanos = System.nanoTime() - start;
+        }
+
+        catch (IOException ex) {
+            throw new GameException("The load generator lost its connection to the server", ex);
+        }
+
+        catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new GameException("The load generator was interrupted", ex);
+        }
+
+        catch (ExecutionException ex) {
+            throw new GameException("A load generator connection failed", ex.getCause());
+        }
+
+        finally {
+            for (Client client : clients) {
+                try {
+                    client.close();
+                }
+
+                catch (IOException ex) {
+                    //already gone
+                }
+            }
+            threads.shutdownNow();
+        }
+        return result;
+    }
+
+    /**
+     * reads the heap figure out of a STATS reply
+     * @param stats reply to STATS
+     * @return bytes of heap in use
+     */
+    private static long heap(String stats) {
+        for (String pair : stats.split(" ")) {
+            if (pair.startsWith("heap=")) {
+                return Long.parseLong(pair.substring(5));
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * one connection to the server
+     */
+    private class Client implements Closeable {
+
+        /**
+         * socket to the server
+         */
+        private final Socket socket;
+
+        /**
+         * replies from the server
+         */
+        private final BufferedReader in;
+
+        /**
+         * commands to the server
+         */
+        private final Writer out;
+
+        /**
+         * nº of commands sent
+         */
+        private long sent;
+
+        /**
+         * connects to the server
+         * @throws IOException when the server cannot be reached
+         */
+        Client() throws IOException {
+            this.socket = new Socket(host, port);
+            this.socket.setTcpNoDelay(true);
+            this.in = new BufferedReader(new InputStreamReader(this.socket.getInputStream(), StandardCharsets.UTF_8));
+            this.out = new BufferedWriter(new OutputStreamWriter(this.socket.getOutputStream(), StandardCharsets.UTF_8));
+        }
+
+        /**
+         * sends a command and waits for its reply
+         * @param command command line
+         * @return reply, without the OK or ERR, or null if it was an error
+         * @throws IOException when the connection breaks
+         */
+        String send(String command) throws IOException {
+            this.out.write(command);
+            this.out.write('\n');
+            this.out.flush();
+            this.sent++;
+
+            String reply = this.in.readLine();
+            if (reply == null) throw new IOException("The server closed the connection");
+            if (reply.startsWith("OK")) {
+                return reply.length() > 3 ? reply.substring(3) : "";
+            }
+            return null;
+        }
+
+        /**
+         * creates a game, seats the players and starts it
+         * @param seed seed for the game
+         * @param players nº of players
+         * @return id of the game
+         * @throws IOException when the connection breaks
+         */
+        long newGame(long seed, int players) throws IOException {
+            long id = Long.parseLong(send("NEW " + seed));
+            for (int i = 0; i < players; i++) {
+                send("JOIN Player " + (i + 1));
+            }
+            send("START");
+            return id;
+        }
+
+        /**
+         * plays a turn in each game in turn until the time is up
+         * @param ids games to play, replaced as they end
+         * @param seed seed for the next replacement game
+         * @param players nº of players in a replacement game
+         * @param end System.nanoTime at which to stop
+         * @return nº of commands sent while playing
+         * @throws IOException when the connection breaks
+         */
+        long play(long[] ids, long seed, int players, long end) throws IOException {
+            long before = this.sent;
+            while (System.nanoTime() < end) {
+                for (int g = 0; g < ids.length && System.nanoTime() < end; g++) {
+                    send("USE " + ids[g]);
+                    if (send("TURN") == null) {
+                        send("CLOSE");
+                        ids[g] = newGame(seed++, players);
+                        continue;
+                    }
+                    send("DRAW");
+                    if (send("TRAVEL") == null) {
+                        send("BREATHE");
+                    }
+                    send("END");
+                }
+            }
+            return this.sent - before;
+        }
+
+        /**
+         * says goodbye to the server and closes the connection
+         * @throws IOException when the connection cannot be closed
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                send("QUIT");
+            }
+
+            catch (IOException ex) {
+                //already gone
+            }
+            this.socket.close();
+        }
+    }
+
+    /**
+     * measurements of a run
+     */
+    public static class Result {
+
+        /**
+         * nº of games kept going at once
+         */
+        private int games;
+
+        /**
+         * server heap in use before the games were created
+         */
+        private long heapBefore;
+
+        /**
+         * server heap in use once the games were created
+         */
+        private long heapAfter;
+
+        /**
+         * nº of commands sent while playing
+         */
+        private long commands;
+
+        /**
+         * time spent playing
+         */
+        private long nanos;
+
+        /**
+         * gives the nº of games kept going at once
+         * @return nº of games
+         */
+        public int getGames() {
+            return this.games;
+        }
+
+        /**
+         * gives the server heap each game takes, as measured by the server after collecting garbage
+         * @return bytes per game
+         */
+        public long getBytesPerSession() {
+            return (this.heapAfter - this.heapBefore) / this.games;
+        }
+
+        /**
+         * gives the nº of commands sent while playing
+         * @return nº of commands
+         */
+        public long getCommands() {
+            return this.commands;
+        }
+
+        /**
+         * gives the nº of commands the server answered per second while playing
+         * @return commands per second
+         */
+        public double getCommandsPerSecond() {
+            return this.nanos == 0 ? 0 : this.commands * 1e9 / this.nanos;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package selfish.server;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+import selfish.Astronaut;
+import selfish.GameEngine;
+import selfish.GameQueue;
+
+/**
+ * one game hosted by the server; commands from every connection playing it
+ * go through the game's queue, so they are applied one at a time
+ * @author sofia hu
+ * @version 1.0
+ */
+final class Session {
+
+    /**
+     * id clients refer to the game by
+     */
+    private final long id;
+
+    /**
+     * queue of commands on the game being played
+     */
+    private final GameQueue queue;
+
+    /**
+     * creates a session
+     * @param id id clients refer to the game by
+     * @param game game to be played
+     * @param executor executor the game's queue is drained on
+     */
+    Session(long id, GameEngine game, Executor executor) {
+        this.id = id;
+        this.queue = new GameQueue(game, executor);
+    }
+
+    /**
+     * gives the id clients refer to the game by
+     * @return id of the session
+     */
+    long getId() {
+        return this.id;
+    }
+
+    /**
+     * queues a command on the game and waits for it to be applied
+     * @param command command name, in upper case
+     * @param arg rest of the line, or "" if there is none
+     * @return reply to send, without the OK
+     * @throws IllegalArgumentException when the command is unknown
+     */
+    String execute(String command, String arg) {
+        try {
+            return this.queue.submit(game -> apply(game, command, arg)).join();
+        }
+
+        catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException) throw (RuntimeException)ex.getCause();
+            throw ex;
+        }
+    }
+
+    /**
+     * applies a command to the game, on the thread draining its queue
+     * @param game game being played
+     * @param command command name, in upper case
+     * @param arg rest of the line, or "" if there is none
+     * @return reply to send, without the OK
+     */
+    private static String apply(GameEngine game, String command, String arg) {
+        switch (command) {
+            case "JOIN":
+                if (arg.isEmpty()) throw new IllegalArgumentException("JOIN needs a name");
+                return String.valueOf(game.addPlayer(arg));
+            case "START":
+                game.startGame();
+                return "";
+            case "TURN":
+                game.startTurn();
+                return game.getCurrentPlayer().getName();
+            case "DRAW":
+                return game.drawCard(current(game)).toString();
+            case "TRAVEL":
+                return game.travel(current(game)).toString();
+            case "BREATHE":
+                return String.valueOf(current(game).breathe());
+            case "END":
+                return String.valueOf(game.endTurn());
+            case "HAND":
+                return current(game).getHandStr();
+            case "STATE":
+                Astronaut winner = game.getWinner();
+                return "over=" + game.gameOver() + " winner=" + (winner == null ? "-" : winner.getName());
+            default:
+                throw new IllegalArgumentException("Unknown command " + command);
+        }
+    }
+
+    /**
+     * gives the player whose turn is in progress
+     * @param game game being played
+     * @return current player
+     * @throws IllegalStateException when no turn is in progress
+     */
+    private static Astronaut current(GameEngine game) {
+        Astronaut player = game.getCurrentPlayer();
+        if (player == null) throw new IllegalStateException("No turn in progress");
+        return player;
+    }
+}
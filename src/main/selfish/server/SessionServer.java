@@ -0,0 +1,278 @@
+package selfish.server;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import selfish.GameEngine;
+import selfish.GameException;
+
+/**
+ * hosts many games in one process and lets clients play them over a local socket,
+ * one thread per connection (virtual when the JVM has them); each game's commands
+ * go through its own queue, drained on the common fork/join pool
+ * <pre> one command per line, each answered with "OK ..." or "ERR reason":
+ *      NEW [seed]     creates a game and plays it on this connection, gives its id
+ *      USE id         plays an existing game on this connection
+ *      JOIN name      addPlayer, gives the nº of players
+ *      START          startGame
+ *      TURN           startTurn, gives the current player
+ *      DRAW           draws an action card for the current player, gives the card
+ *      TRAVEL         travel for the current player, gives the space card
+ *      BREATHE        breathe for the current player, gives the oxygen left
+ *      END            endTurn, gives the nº of players alive
+ *      HAND           gives the current player's hand
+ *      STATE          gives whether the game is over and its winner
+ *      CLOSE          removes this connection's game from the server
+ *      STATS [GC]     gives the server's totals, collecting garbage first if asked
+ *      QUIT           closes the connection </pre>
+ * @author sofia hu
+ * @version 1.0
+ */
+public class SessionServer implements Closeable {
+
+    /**
+     * port the server listens on by default
+     */
+    public final static int DEFAULT_PORT = 7070;
+
+    /**
+     * socket connections are accepted on
+     */
+    private final ServerSocket socket;
+
+    /**
+     * runs one task per connection
+     */
+    private final ExecutorService threads;
+
+    /**
+     * games being hosted, by id
+     */
+    private final Map<Long, Session> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * id the next game gets
+     */
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    /**
+     * nº of commands handled
+     */
+    private final LongAdder commands = new LongAdder();
+
+    /**
+     * nº of connections open
+     */
+    private final LongAdder connections = new LongAdder();
+
+    /**
+     * path to the action cards
+     */
+    private final String gameDeckPath;
+
+    /**
+     * path to the space cards
+     */
+    private final String spaceDeckPath;
+
+    /**
+     * creates a server listening on the loopback address; it accepts nothing until started
+     * @param port port to listen on, 0 for any free port
+     * @param gameDeckPath path to the action cards
+     * @param spaceDeckPath path to the space cards
+     * @throws GameException when the port cannot be listened on
+     */
+    public SessionServer(int port, String gameDeckPath, String spaceDeckPath) throws GameException {
+        try {
+            this.socket = new ServerSocket(port, 1024, InetAddress.getLoopbackAddress());
+        }
+
+        catch (IOException ex) {
+            throw new GameException("The server could not listen on port " + port, ex);
+        }
+        this.threads = Threads.perTask();
+        this.gameDeckPath = gameDeckPath;
+        this.spaceDeckPath = spaceDeckPath;
+    }
+
+    /**
+     * starts accepting connections on a thread of its own, which keeps the process
+     * running until the server is closed
+     */
+    public void start() {
+        Thread acceptor = new Thread(() -> {
+            while (!this.socket.isClosed()) {
+                try {
+                    Socket client = this.socket.accept();
+                    this.threads.execute(() -> serve(client));
+                }
+
+                catch (IOException ex) {
+                    //the socket was closed
+                }
+            }
+        }, "selfish-accept");
+        acceptor.start();
+    }
+
+    /**
+     * gives the port the server listens on
+     * @return port
+     */
+    public int getPort() {
+        return this.socket.getLocalPort();
+    }
+
+    /**
+     * gives the nº of games being hosted
+     * @return nº of games
+     */
+    public int getSessions() {
+        return this.sessions.size();
+    }
+
+    /**
+     * gives the nº of commands handled since the server was created
+     * @return nº of commands
+     */
+    public long getCommands() {
+        return this.commands.sum();
+    }
+
+    /**
+     * stops accepting connections and closes the open ones
+     * @throws IOException when the socket cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        this.socket.close();
+        this.threads.shutdownNow();
+    }
+
+    /**
+     * reads commands from a connection until it quits or closes
+     * @param client connection
+     */
+    private void serve(Socket client) {
+        this.connections.increment();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                Writer out = new BufferedWriter(new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8))) {
+            client.setTcpNoDelay(true);
+            Session session = null;
+            String line;
+            while ((line = in.readLine()) != null) {
+                this.commands.increment();
+                int space = line.indexOf(' ');
+                String command = (space < 0 ? line : line.substring(0, space)).toUpperCase(Locale.ROOT);
+                String arg = space < 0 ? "" : line.substring(space + 1).trim();
+                String reply;
+
+                try {
+                    switch (command) {
+                        case "QUIT":
+                            out.write("OK\n");
+                            out.flush();
+                            return;
+                        case "NEW":
+                            session = newSession(arg.isEmpty() ? System.nanoTime() : Long.parseLong(arg));
+                            reply = String.valueOf(session.getId());
+                            break;
+                        case "USE":
+                            session = this.sessions.get(Long.parseLong(arg));
+                            if (session == null) throw new IllegalArgumentException("No game " + arg);
+                            reply = arg;
+                            break;
+                        case "CLOSE":
+                            if (session == null) throw new IllegalStateException("No game in use");
+                            this.sessions.remove(session.getId());
+                            session = null;
+                            reply = "";
+                            break;
+                        case "STATS":
+                            reply = stats(arg.equalsIgnoreCase("GC"));
+                            break;
+                        default:
+                            if (session == null) throw new IllegalStateException("No game in use");
+                            reply = session.execute(command, arg);
+                    }
+                    out.write(reply.isEmpty() ? "OK\n" : "OK " + reply + "\n");
+                }
+
+                catch (RuntimeException | GameException ex) {
+                    String message = ex.getMessage() == null ? ex.getClass().getSimpleName() : ex.getMessage();
+                    out.write("ERR " + message.replace('\n', ' ') + "\n");
+                }
+
+                //answers are only flushed once the client has nothing else queued up
+                if (!in.ready()) {
+                    out.flush();
+                }
+            }
+        }
+
+        catch (SocketException ex) {
+            //the client went away
+        }
+
+        catch (IOException ex) {
+            //the connection broke; its games stay hosted for others to use
+        }
+
+        finally {
+            this.connections.decrement();
+            try {
+                client.close();
+            }
+
+            catch (IOException ex) {
+                //already closed
+            }
+        }
+    }
+
+    /**
+     * creates a game and hosts it
+     * @param seed seed for the game's randomizer
+     * @return session of the new game
+     * @throws GameException when the card files cannot be read
+     */
+    private Session newSession(long seed) throws GameException {
+        Session session = new Session(this.nextId.getAndIncrement(), new GameEngine(seed, this.gameDeckPath, this.spaceDeckPath),
+            ForkJoinPool.commonPool());
+        this.sessions.put(session.getId(), session);
+        return session;
+    }
+
+    /**
+     * gives the server's totals as name=value pairs
+     * @param gc whether to collect garbage first, so the heap figures count only live objects
+     * @return totals
+     */
+    private String stats(boolean gc) {
+        if (gc) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return "sessions=" + this.sessions.size()
+            + " connections=" + this.connections.sum()
+            + " commands=" + this.commands.sum()
+            + " heap=" + (runtime.totalMemory() - runtime.freeMemory())
+            + " virtual=" + Threads.virtual();
+    }
+}
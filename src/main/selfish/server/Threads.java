@@ -0,0 +1,48 @@
+package selfish.server;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * makes the thread-per-task executors the server and load generator run their connections on
+ * @author sofia hu
+ * @version 1.0
+ */
+final class Threads {
+
+    private Threads() { }
+
+    /**
+     * gives an executor that starts a new thread for every task: a virtual thread
+     * when the JVM has them, otherwise a platform thread from a cached pool
+     * @return executor
+     */
+    static ExecutorService perTask() {
+        try {
+            //looked up by name so the server still builds and runs on JVMs without virtual threads
+            return (ExecutorService)Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+
+        catch (ReflectiveOperationException ex) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * tells whether perTask gives virtual threads
+     * @return boolean value
+     */
+    static boolean virtual() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        }
+
+        catch (NoSuchMethodException ex) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package selfish;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.management.ThreadMXBean;
+
+import selfish.deck.Card;
+import selfish.deck.GameDeck;
+import selfish.deck.Oxygen;
+
+/**
+ * checks that breathing, siphoning and splitting oxygen allocate nothing once
+ * warmed up, and that a simulated turn, the game's set-up left out, stays within
+ * its allocation budget
+ * <pre> run with src/test/test.sh selfish.AllocationTest </pre>
+ * @author sofia hu
+ * @version 1.0
+ */
+public class AllocationTest {
+
+    /**
+     * bytes a five-player turn may allocate on average: it measures 56, for the
+     * lists made when a player dies and the decks growing, spread over a game's turns
+     */
+    final static int TURN_BUDGET = 64;
+
+    /**
+     * nº of times each operation is run to warm it up, and again to measure it
+     */
+    final static int ROUNDS = 100000;
+
+    /**
+     * nº of games played to warm the turns up, and again to measure them
+     */
+    final static int GAMES = 1000;
+
+    /**
+     * bean reading what the thread has allocated
+     */
+    private ThreadMXBean threads;
+
+    /**
+     * game whose oxygen is moved about
+     */
+    private GameEngine game;
+
+    /**
+     * game deck of the game
+     */
+    private GameDeck deck;
+
+    /**
+     * discard pile of the game
+     */
+    private GameDeck discard;
+
+    /**
+     * player holding two oxygen(2)s and nothing else, so every other breath splits one
+     */
+    private Astronaut player;
+
+    /**
+     * starts a two-player game and leaves its first player two oxygen(2)s
+     * @throws GameException when the card files cannot be read
+     */
+    @Before
+    public void setUp() throws GameException {
+        this.threads = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+        assumeTrue(this.threads.isThreadAllocatedMemorySupported() && this.threads.isThreadAllocatedMemoryEnabled());
+
+        this.game = new GameEngine(0, Simulation.ACTION_CARDS, Simulation.SPACE_CARDS);
+        this.game.addPlayer("Player 1");
+        this.game.addPlayer("Player 2");
+        this.game.startGame();
+        this.deck = this.game.getGameDeck();
+        this.discard = this.game.getGameDiscard();
+
+        this.player = this.game.getAllPlayers().get(0);
+        List<Card> hand = this.player.getHand();
+        this.player.addToHand(this.deck.drawOxygen(2));
+        this.player.addToHand(this.deck.drawOxygen(2));
+        for (Card card : hand) {
+            this.player.hack(card);
+            this.deck.add(card);
+        }
+    }
+
+    @Test
+    public void breatheAllocatesNothing() {
+        assertEquals(0, bytes(() -> {
+            this.player.breathe();
+            this.player.breathe();
+            this.player.addToHand(this.deck.drawOxygen(2));
+            this.deck.add(this.discard.drawOxygen(1));
+            this.deck.add(this.discard.drawOxygen(1));
+        }));
+    }
+
+    @Test
+    public void siphonAllocatesNothing() {
+        assertEquals(0, bytes(() -> {
+            this.deck.add(this.player.siphon());
+            this.deck.add(this.player.siphon());
+            this.player.addToHand(this.deck.drawOxygen(2));
+        }));
+    }
+
+    @Test
+    public void splitOxygenAllocatesNothing() {
+        Oxygen[] split = new Oxygen[2];
+        assertEquals(0, bytes(() -> {
+            this.game.splitOxygen(this.deck.drawOxygen(2), split);
+            this.deck.add(split[0]);
+            this.deck.add(split[1]);
+        }));
+    }
+
+    @Test
+    public void turnStaysWithinBudget() throws GameException {
+        turnBytes(0);
+        double perTurn = turnBytes(GAMES);
+        assertTrue(String.format("%.1f bytes/turn, budget %d", perTurn, TURN_BUDGET), perTurn <= TURN_BUDGET);
+    }
+
+    /**
+     * runs an operation {@value #ROUNDS} times to warm it up, then measures what
+     * running it as many times again allocates
+     * @param operation operation to run
+     * @return bytes allocated
+     */
+    private long bytes(Runnable operation) {
+        for (int round = 0; round < ROUNDS; round++) {
+            operation.run();
+        }
+        long before = this.threads.getCurrentThreadAllocatedBytes();
+        for (int round = 0; round < ROUNDS; round++) {
+            operation.run();
+        }
+        return this.threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    /**
+     * plays {@value #GAMES} five-player games with the simulation's bot and
+     * measures what their turns allocate, leaving out creating and dealing each game
+     * @param firstSeed seed of the first game
+     * @return bytes allocated per turn
+     * @throws GameException when the card files cannot be read
+     */
+    private double turnBytes(long firstSeed) throws GameException {
+        long bytes = 0;
+        long turns = 0;
+        for (long seed = firstSeed; seed < firstSeed + GAMES; seed++) {
+            GameEngine game = new GameEngine(seed, Simulation.ACTION_CARDS, Simulation.SPACE_CARDS);
+            for (int i = 0; i < 5; i++) {
+                game.addPlayer("Player " + (i + 1));
+            }
+            game.startGame();
+
+            long before = this.threads.getCurrentThreadAllocatedBytes();
+            int played = 0;
+            while (!game.gameOver() && played < Simulation.MAX_TURNS) {
+                game.startTurn();
+                Simulation.takeTurn(game, game.getCurrentPlayer());
+                game.endTurn();
+                played++;
+            }
+            bytes += this.threads.getCurrentThreadAllocatedBytes() - before;
+            turns += played;
+        }
+        return (double)bytes / turns;
+    }
+}
@@ -0,0 +1,19 @@
+#!/bin/sh
+# compiles the engine and the tests into build/test and runs them with the
+# junit and hamcrest jars in lib; exits with junit's status
+#   src/test/test.sh                         runs every test
+#   src/test/test.sh selfish.AllocationTest  runs the tests named
+set -e
+cd "$(dirname "$0")/../.."
+cp=lib/junit-4.13.2.jar:lib/hamcrest-core-1.3.jar
+
+out=build/test
+rm -rf "$out"
+mkdir -p "$out"
+javac -encoding UTF-8 -d "$out" $(find src/main -name '*.java')
+javac -encoding UTF-8 -cp "$out:$cp" -d "$out" $(find src/test -name '*.java')
+
+if [ $# -eq 0 ]; then
+    set -- $(cd src/test && find . -name '*Test.java' | sed 's|^\./||; s|\.java$||; s|/|.|g')
+fi
+exec java -cp "$out:$cp" org.junit.runner.JUnitCore "$@"